@@ -0,0 +1,80 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingOverlapIndex;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Проверка пересечения нового периода с существующими бронированиями вещи: интервальный индекс,
+ * которым пользуется сервис, против прежнего линейного прохода по всем будущим бронированиям.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingOverlapBenchmark {
+    private static final long ITEM_ID = 1L;
+    private static final int PROBES = 1024;
+
+    @Param({"10", "100", "1000", "10000"})
+    int bookings;
+
+    private BookingOverlapIndex index;
+    private List<Booking> existing;
+    private LocalDateTime[] probeStarts;
+    private int probe;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime origin = LocalDateTime.of(2030, 1, 1, 0, 0);
+        Item item = Item.builder().id(ITEM_ID).build();
+        index = new BookingOverlapIndex(null);
+        existing = new ArrayList<>();
+        for (long id = 1; id <= bookings; id++) {
+            LocalDateTime start = origin.plusDays(id);
+            Booking booking = Booking.builder()
+                    .id(id)
+                    .item(item)
+                    .start(start)
+                    .end(start.plusHours(20))
+                    .status(BookingStatus.APPROVED)
+                    .build();
+            index.add(booking);
+            existing.add(booking);
+        }
+        Random random = new Random(42);
+        probeStarts = new LocalDateTime[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            probeStarts[i] = origin.plusHours(random.nextInt(bookings * 24));
+        }
+    }
+
+    @Benchmark
+    public boolean intervalIndex() {
+        LocalDateTime start = nextProbe();
+        return index.hasCrossedPeriods(ITEM_ID, start, start.plusHours(3));
+    }
+
+    @Benchmark
+    public boolean linearScan() {
+        LocalDateTime start = nextProbe();
+        LocalDateTime end = start.plusHours(3);
+        return existing.stream()
+                .anyMatch(b -> b.getStart().isBefore(end) && start.isBefore(b.getEnd()));
+    }
+
+    private LocalDateTime nextProbe() {
+        probe = (probe + 1) & (PROBES - 1);
+        return probeStarts[probe];
+    }
+}
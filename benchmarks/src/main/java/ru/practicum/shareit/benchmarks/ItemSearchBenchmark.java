@@ -0,0 +1,96 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.search.InvertedIndexItemSearchEngine;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Поиск вещей через ItemService на встроенной H2 с items вещами. Кэш результатов отключён,
+ * чтобы измерялся сам поисковый движок (index или jpql), а не попадание в кэш.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemSearchBenchmark {
+    private static final String[] WORDS = {"дрель", "перфоратор", "пила", "лестница", "палатка", "велосипед",
+            "самокат", "шуруповёрт", "болгарка", "удлинитель", "насос", "генератор", "рюкзак", "спальник",
+            "котелок", "фонарь", "аккумуляторная", "ударная", "складная", "туристическая", "детский", "горный",
+            "электрический", "ручной", "новый", "мощный", "лёгкий", "компактный"};
+    private static final String[] PHRASES = {"дрель", "аккумуляторная дрель", "туристическая палатка", "горный",
+            "фонарь", "шурупов", "электрический насос", "компактный рюкзак"};
+
+    @Param({"index", "jpql"})
+    String engine;
+
+    @Param({"10000"})
+    int items;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private int phrase;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .run("--shareit.items.search.engine=" + engine,
+                        "--shareit.items.search.segment-path=",
+                        "--shareit.items.search.cache-size=0",
+                        "--spring.datasource.url=jdbc:h2:mem:bench-" + engine + ";DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.properties.hibernate.show_sql=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.org.springframework.transaction.interceptor=WARN",
+                        "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN");
+        seed(context.getBean(JdbcTemplate.class));
+        context.getBeanProvider(InvertedIndexItemSearchEngine.class).ifAvailable(InvertedIndexItemSearchEngine::rebuild);
+        itemService = context.getBean(ItemService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ItemDto> searchItemsByPhrase() {
+        phrase = (phrase + 1) % PHRASES.length;
+        return itemService.searchItemsByPhrase(PHRASES[phrase], 0, 20);
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("INSERT INTO users (name, email) VALUES ('bench', 'bench@test.ru')");
+        long ownerId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM users", Long.class);
+        Random random = new Random(42);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < items; i++) {
+            rows.add(new Object[]{ownerId, words(random, 2), words(random, 6), random.nextInt(5) != 0});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO items (user_id, name, description, available) VALUES (?, ?, ?, ?)", rows);
+    }
+
+    private static String words(Random random, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+}
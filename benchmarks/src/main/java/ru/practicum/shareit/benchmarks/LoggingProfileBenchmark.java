@@ -0,0 +1,84 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пропускная способность списка вещей владельца с настройками логирования по умолчанию (show_sql, format_sql,
+ * DEBUG org.hibernate.SQL, TRACE транзакций) и с профилем prod. Консоль перенаправляется в файл, чтобы
+ * стоимость вывода оставалась в замере, но не засоряла вывод JMH.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 5)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class LoggingProfileBenchmark {
+    @Param({"default", "prod"})
+    String profile;
+
+    @Param({"50"})
+    int items;
+
+    private PrintStream console;
+    private Path log;
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private long ownerId;
+
+    @Setup
+    public void setUp() throws IOException {
+        console = System.out;
+        log = Files.createTempFile("shareit-logging-" + profile, ".log");
+        System.setOut(new PrintStream(new FileOutputStream(log.toFile()), true));
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .profiles("default".equals(profile) ? new String[0] : new String[]{profile})
+                .run("--shareit.items.search.segment-path=",
+                        "--spring.datasource.url=jdbc:h2:mem:bench-logging;DB_CLOSE_DELAY=-1");
+        ownerId = seed(context.getBean(JdbcTemplate.class));
+        itemService = context.getBean(ItemService.class);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.close();
+        System.out.close();
+        System.setOut(console);
+        console.printf("%n%s: %d байт лога%n", profile, Files.size(log));
+        Files.delete(log);
+    }
+
+    @Benchmark
+    public List<ItemDto> findItemsByOwnerId() {
+        return itemService.findItemsByOwnerId(ownerId, 0, 20);
+    }
+
+    private long seed(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("INSERT INTO users (name, email) VALUES ('bench', 'bench@test.ru')");
+        long owner = jdbcTemplate.queryForObject("SELECT MAX(id) FROM users", Long.class);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < items; i++) {
+            rows.add(new Object[]{owner, "Вещь " + i, "Описание вещи " + i});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO items (user_id, name, description, available) VALUES (?, ?, ?, TRUE)", rows);
+        return owner;
+    }
+}
@@ -0,0 +1,95 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.comments.Comment;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.pointers.BookingSnapshot;
+import ru.practicum.shareit.item.pointers.ItemBookingPointers;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Маппинг страницы бронирований и страницы вещей владельца с указателями и отзывами, как в ответах сервера.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+    private static final int COMMENTS_PER_ITEM = 3;
+
+    @Param({"10", "100", "1000"})
+    int size;
+
+    private List<Booking> bookings;
+    private List<Item> items;
+    private Map<Long, ItemBookingPointers> pointers;
+    private Map<Long, List<Comment>> comments;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.of(2030, 1, 1, 12, 0);
+        User owner = User.builder().id(1L).name("Владелец").email("owner@test.ru").build();
+        User booker = User.builder().id(2L).name("Арендатор").email("booker@test.ru").build();
+        bookings = new ArrayList<>();
+        items = new ArrayList<>();
+        pointers = new HashMap<>();
+        comments = new HashMap<>();
+        for (long id = 1; id <= size; id++) {
+            Item item = Item.builder()
+                    .id(id)
+                    .owner(owner)
+                    .name("Вещь " + id)
+                    .description("Описание вещи " + id)
+                    .available(true)
+                    .build();
+            items.add(item);
+            Booking last = booking(id * 2, item, booker, now.minusDays(1), BookingStatus.APPROVED);
+            Booking next = booking(id * 2 + 1, item, booker, now.plusDays(1), BookingStatus.WAITING);
+            bookings.add(last);
+            bookings.add(next);
+            ItemBookingPointers itemPointers = new ItemBookingPointers(id);
+            itemPointers.setLast(BookingSnapshot.of(last));
+            itemPointers.setNext(BookingSnapshot.of(next));
+            pointers.put(id, itemPointers);
+            List<Comment> itemComments = new ArrayList<>();
+            for (long c = 0; c < COMMENTS_PER_ITEM; c++) {
+                itemComments.add(new Comment(id * COMMENTS_PER_ITEM + c, item, booker, "Отзыв " + c, now.minusHours(c)));
+            }
+            comments.put(id, itemComments);
+        }
+        bookings = bookings.subList(0, size);
+    }
+
+    @Benchmark
+    public List<BookingDto> mapToBookingDto() {
+        return BookingMapper.mapToBookingDto(bookings);
+    }
+
+    @Benchmark
+    public List<ItemDto> mapToItemDtoWithBookings() {
+        return ItemMapper.mapToItemDtoWithBookings(items, pointers, comments);
+    }
+
+    private static Booking booking(long id, Item item, User booker, LocalDateTime start, BookingStatus status) {
+        return Booking.builder()
+                .id(id)
+                .item(item)
+                .booker(booker)
+                .start(start)
+                .end(start.plusHours(12))
+                .status(status)
+                .build();
+    }
+}
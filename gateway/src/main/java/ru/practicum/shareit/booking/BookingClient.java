@@ -1,38 +1,42 @@
 package ru.practicum.shareit.booking;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.ClientHttpRequestFactory;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.booking.dto.NewBookingDto;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerClientFactory;
 
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.function.Supplier;
 
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory((Supplier<ClientHttpRequestFactory>) HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public BookingClient(ServerClientFactory clientFactory, RestTemplateBuilder builder) {
+        super(clientFactory, API_PREFIX, builder);
     }
 
     public ResponseEntity<Object> addBooking(NewBookingDto newBookingDto, Long bookerId) {
         return post("", bookerId, newBookingDto);
     }
 
+    public ResponseEntity<Object> addBookings(List<NewBookingDto> newBookings, Long bookerId) {
+        return post("/batch", bookerId, newBookings);
+    }
+
+    public ResponseEntity<Object> approveBookings(List<Long> bookingIds, boolean approved, Long ownerId) {
+        Map<String, Object> parameters = Map.of(
+                "approved", approved
+        );
+        return patch("/approve?approved={approved}", ownerId, parameters, bookingIds);
+    }
+
     public ResponseEntity<Object> approveBooking(long bookingId, boolean approved, Long ownerId) {
         Map<String, Object> parameters = Map.of(
                 "approved", approved
@@ -44,13 +48,30 @@ public class BookingClient extends BaseClient {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getBookerBookings(Long bookerId, BookingState state, int from, int size) {
-        Map<String, Object> parameters = Map.of("state", state.name(), "from", from, "size", size);
-        return get("?state={state}&from={from}&size={size}", bookerId, parameters);
+    public ResponseEntity<Object> getBookerBookings(Long bookerId, BookingState state, int from, int size, String paging,
+                                                    String cursor) {
+        Map<String, Object> parameters = listParameters(state, from, size, paging, cursor);
+        return get("?state={state}&from={from}&size={size}" + pagingQuery(paging, cursor), bookerId, parameters);
+    }
+
+    public ResponseEntity<Object> getOwnerBookings(Long ownerId, BookingState state, int from, int size, String paging,
+                                                   String cursor) {
+        Map<String, Object> parameters = listParameters(state, from, size, paging, cursor);
+        return get("/owner?state={state}&from={from}&size={size}" + pagingQuery(paging, cursor), ownerId, parameters);
+    }
+
+    private Map<String, Object> listParameters(BookingState state, int from, int size, String paging, String cursor) {
+        Map<String, Object> parameters = new HashMap<>(Map.of("state", state.name(), "from", from, "size", size));
+        if (paging != null) {
+            parameters.put("paging", paging);
+        }
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+        }
+        return parameters;
     }
 
-    public ResponseEntity<Object> getOwnerBookings(Long ownerId, BookingState state, int from, int size) {
-        Map<String, Object> parameters = Map.of("state", state.name(), "from", from, "size", size);
-        return get("/owner?state={state}&from={from}&size={size}", ownerId, parameters);
+    private String pagingQuery(String paging, String cursor) {
+        return (paging == null ? "" : "&paging={paging}") + (cursor == null ? "" : "&cursor={cursor}");
     }
 }
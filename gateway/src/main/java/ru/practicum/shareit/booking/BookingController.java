@@ -1,8 +1,12 @@
 package ru.practicum.shareit.booking;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -14,6 +18,7 @@ import ru.practicum.shareit.booking.dto.NewBookingDto;
 import ru.practicum.shareit.exception.ValidationException;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Controller
 @RequestMapping(path = "/bookings")
@@ -21,6 +26,8 @@ import java.time.LocalDateTime;
 @Slf4j
 @Validated
 public class BookingController {
+    private static final int MAX_BATCH_SIZE = 100;
+
     private final BookingClient bookingClient;
 
     @PostMapping
@@ -30,6 +37,22 @@ public class BookingController {
         return bookingClient.addBooking(newBookingDto, bookerId);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<Object> addBookings(@RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE) List<@Valid NewBookingDto> newBookings,
+                                              @RequestHeader("X-Sharer-User-Id") Long bookerId) {
+        newBookings.forEach(this::validateBookingPeriod);
+        log.info("Add {} bookings with userId={}", newBookings.size(), bookerId);
+        return bookingClient.addBookings(newBookings, bookerId);
+    }
+
+    @PatchMapping("/approve")
+    public ResponseEntity<Object> approveBookings(@RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE) List<@NotNull Long> bookingIds,
+                                                  @RequestParam boolean approved,
+                                                  @RequestHeader("X-Sharer-User-Id") Long ownerId) {
+        log.info("Patch {} bookings with ownerId={}", bookingIds.size(), ownerId);
+        return bookingClient.approveBookings(bookingIds, approved, ownerId);
+    }
+
     @PatchMapping("/{bookingId}")
     public ResponseEntity<Object> approveBooking(@PathVariable long bookingId, @RequestParam boolean approved,
                                                  @RequestHeader("X-Sharer-User-Id") Long ownerId) {
@@ -47,22 +70,26 @@ public class BookingController {
     public ResponseEntity<Object> getBookerBookings(@RequestHeader("X-Sharer-User-Id") Long bookerId,
                                                     @RequestParam(name = "state", defaultValue = "ALL") String stateParam,
                                                     @PositiveOrZero @RequestParam(defaultValue = "0") int from,
-                                                    @Positive @RequestParam(defaultValue = "10") int size) {
+                                                    @Positive @RequestParam(defaultValue = "10") int size,
+                                                    @Pattern(regexp = "OFFSET|CURSOR") @RequestParam(required = false) String paging,
+                                                    @RequestParam(required = false) String cursor) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
-        log.info("Get booking with state {}, bookerId={}, from={}, size={}", stateParam, bookerId, from, size);
-        return bookingClient.getBookerBookings(bookerId, state, from, size);
+        log.info("Get booking with state {}, bookerId={}, from={}, size={}, paging={}, cursor={}", stateParam, bookerId, from, size, paging, cursor);
+        return bookingClient.getBookerBookings(bookerId, state, from, size, paging, cursor);
     }
 
     @GetMapping("/owner")
     public ResponseEntity<Object> getOwnerBookings(@RequestHeader("X-Sharer-User-Id") Long ownerId,
                                                    @RequestParam(name = "state", defaultValue = "ALL") String stateParam,
                                                    @PositiveOrZero @RequestParam(defaultValue = "0") int from,
-                                                   @Positive @RequestParam(defaultValue = "10") int size) {
+                                                   @Positive @RequestParam(defaultValue = "10") int size,
+                                                   @Pattern(regexp = "OFFSET|CURSOR") @RequestParam(required = false) String paging,
+                                                   @RequestParam(required = false) String cursor) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
-        log.info("Get booking with state {}, ownerId={}, from={}, size={}", stateParam, ownerId, from, size);
-        return bookingClient.getOwnerBookings(ownerId, state, from, size);
+        log.info("Get booking with state {}, ownerId={}, from={}, size={}, paging={}, cursor={}", stateParam, ownerId, from, size, paging, cursor);
+        return bookingClient.getOwnerBookings(ownerId, state, from, size, paging, cursor);
     }
 
     private void validateBookingPeriod(NewBookingDto newBookingDto) {
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.client;
 
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.*;
 import org.springframework.lang.Nullable;
 import org.springframework.web.client.HttpStatusCodeException;
@@ -7,12 +8,47 @@ import org.springframework.web.client.RestTemplate;
 
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 public class BaseClient {
-    protected final RestTemplate rest;
+    /**
+     * Заголовки ответа сервера, которые гейтвей передаёт клиенту. Остальные, в том числе hop-by-hop, отбрасываются.
+     */
+    private static final List<String> FORWARDED_HEADERS = List.of(HttpHeaders.CONTENT_TYPE, HttpHeaders.ETAG,
+            HttpHeaders.CACHE_CONTROL, HttpHeaders.LAST_MODIFIED, "X-Next-Cursor");
+
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
 
-    public BaseClient(RestTemplate rest) {
-        this.rest = rest;
+    protected final RestTemplate rest;
+    private final String apiPrefix;
+    private final ServerClientFactory clientFactory;
+    private final InFlightLimiter inFlightLimiter;
+    private final ResponseCache responseCache;
+    @Nullable
+    private final SingleFlight singleFlight;
+    private final Class<?> responseType;
+
+    public BaseClient(ServerClientFactory clientFactory, String apiPrefix, RestTemplateBuilder builder) {
+        this.rest = clientFactory.restTemplate(apiPrefix, builder);
+        this.apiPrefix = apiPrefix;
+        this.clientFactory = clientFactory;
+        this.inFlightLimiter = clientFactory.getInFlightLimiter();
+        this.responseCache = clientFactory.getResponseCache();
+        this.singleFlight = clientFactory.getSingleFlight();
+        this.responseType = clientFactory.isPassthrough() ? byte[].class : Object.class;
+    }
+
+    /**
+     * GET отдельного ресурса через кэш ответов с ревалидацией по ETag.
+     */
+    protected ResponseEntity<Object> getCached(String path, @Nullable Long userId) {
+        return responseCache.get(apiPrefix + path, userId, eTag -> {
+            HttpHeaders headers = defaultHeaders(userId);
+            if (eTag != null) {
+                headers.setIfNoneMatch(eTag);
+            }
+            return exchange(HttpMethod.GET, path, null, new HttpEntity<>(headers), byte[].class);
+        });
     }
 
     protected ResponseEntity<Object> get(String path) {
@@ -77,18 +113,64 @@ public class BaseClient {
 
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
         HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+        ResponseEntity<?> response = exchange(method, path, parameters, requestEntity, responseType);
+        if (method != HttpMethod.GET) {
+            responseCache.evict(apiPrefix + resourcePath(path));
+        }
+        return new ResponseEntity<>(response.getBody(), response.getHeaders(), response.getStatusCode());
+    }
 
-        ResponseEntity<Object> shareitServerResponse;
+    private <T, R> ResponseEntity<R> exchange(HttpMethod method, String path, @Nullable Map<String, Object> parameters,
+                                              HttpEntity<T> requestEntity, Class<R> type) {
+        if (method != HttpMethod.GET || singleFlight == null) {
+            return guarded(method, path, parameters, requestEntity, type);
+        }
+        HttpHeaders headers = requestEntity.getHeaders();
+        String key = type.getSimpleName() + " " + apiPrefix + path
+                + (parameters == null ? "" : new TreeMap<>(parameters).toString())
+                + "|" + headers.getFirst(USER_ID_HEADER) + "|" + headers.getFirst(HttpHeaders.IF_NONE_MATCH);
+        return singleFlight.execute(key, () -> guarded(method, path, parameters, requestEntity, type));
+    }
+
+    private <T, R> ResponseEntity<R> guarded(HttpMethod method, String path, @Nullable Map<String, Object> parameters,
+                                             HttpEntity<T> requestEntity, Class<R> type) {
+        return clientFactory.routeGuard(route(path))
+                .execute(() -> send(method, path, parameters, requestEntity, type));
+    }
+
+    /**
+     * Маршрут для circuit breaker и bulkhead. По умолчанию один на клиента; клиент может выделить
+     * в отдельный маршрут тяжёлые запросы, чтобы их деградация не задевала остальные.
+     */
+    protected String route(String path) {
+        return apiPrefix.substring(1);
+    }
+
+    private <T, R> ResponseEntity<R> send(HttpMethod method, String path, @Nullable Map<String, Object> parameters,
+                                          HttpEntity<T> requestEntity, Class<R> type) {
+        ResponseEntity<R> shareitServerResponse;
+        inFlightLimiter.acquire();
         try {
             if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
+                shareitServerResponse = rest.exchange(path, method, requestEntity, type, parameters);
             } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
+                shareitServerResponse = rest.exchange(path, method, requestEntity, type);
             }
         } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+            return prepareGatewayResponse(e.getStatusCode(), e.getResponseHeaders(), type.cast(e.getResponseBodyAsByteArray()));
+        } finally {
+            inFlightLimiter.release();
         }
-        return prepareGatewayResponse(shareitServerResponse);
+        return prepareGatewayResponse(shareitServerResponse.getStatusCode(), shareitServerResponse.getHeaders(),
+                shareitServerResponse.getBody());
+    }
+
+    private static String resourcePath(String path) {
+        int end = 1;
+        while (end < path.length() && "/?".indexOf(path.charAt(end)) < 0) {
+            end++;
+        }
+        return path.isEmpty() || path.charAt(0) != '/' ? "" : path.substring(0, end);
     }
 
     private HttpHeaders defaultHeaders(Long userId) {
@@ -96,20 +178,22 @@ public class BaseClient {
         headers.setContentType(MediaType.APPLICATION_JSON);
         headers.setAccept(List.of(MediaType.APPLICATION_JSON));
         if (userId != null) {
-            headers.set("X-Sharer-User-Id", String.valueOf(userId));
+            headers.set(USER_ID_HEADER, String.valueOf(userId));
         }
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
-        }
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
-
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
+    private static <R> ResponseEntity<R> prepareGatewayResponse(HttpStatusCode status, @Nullable HttpHeaders headers,
+                                                                @Nullable R body) {
+        HttpHeaders forwarded = new HttpHeaders();
+        if (headers != null) {
+            for (String name : FORWARDED_HEADERS) {
+                List<String> values = headers.get(name);
+                if (values != null) {
+                    forwarded.put(name, values);
+                }
+            }
         }
-        return responseBuilder.build();
+        return new ResponseEntity<>(body, forwarded, status);
     }
 }
@@ -0,0 +1,119 @@
+package ru.practicum.shareit.client;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Счётный circuit breaker: смотрит на исходы последних window вызовов и размыкается, когда доля неудачных
+ * (ошибки, 5xx, медленные ответы) достигает порога. Через openDuration пропускает halfOpenCalls пробных
+ * вызовов: если все успешны — замыкается, при первой неудаче снова размыкается.
+ */
+public class CircuitBreaker {
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final boolean[] outcomes;
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final long openNanos;
+    private final int halfOpenCalls;
+    private final LongSupplier nanoTime;
+
+    private State state = State.CLOSED;
+    private int recorded;
+    private int next;
+    private int failures;
+    private long openedAt;
+    private int probesStarted;
+    private int probesSucceeded;
+
+    public CircuitBreaker(ServerClientProperties.Guard guard) {
+        this(guard, System::nanoTime);
+    }
+
+    CircuitBreaker(ServerClientProperties.Guard guard, LongSupplier nanoTime) {
+        this.outcomes = new boolean[guard.getWindow()];
+        this.minimumCalls = Math.min(guard.getMinimumCalls(), guard.getWindow());
+        this.failureRateThreshold = guard.getFailureRateThreshold();
+        this.openNanos = guard.getOpenDuration().toNanos();
+        this.halfOpenCalls = guard.getHalfOpenCalls();
+        this.nanoTime = nanoTime;
+    }
+
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (nanoTime.getAsLong() - openedAt < openNanos) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            probesStarted = 0;
+            probesSucceeded = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesStarted >= halfOpenCalls) {
+                return false;
+            }
+            probesStarted++;
+        }
+        return true;
+    }
+
+    /**
+     * Возвращает разрешение вызова, который так и не был отправлен на сервер.
+     */
+    public synchronized void cancel() {
+        if (state == State.HALF_OPEN && probesStarted > 0) {
+            probesStarted--;
+        }
+    }
+
+    public synchronized void record(boolean failure) {
+        switch (state) {
+            case HALF_OPEN -> {
+                if (failure) {
+                    open();
+                } else if (++probesSucceeded >= halfOpenCalls) {
+                    close();
+                }
+            }
+            case CLOSED -> {
+                if (recorded == outcomes.length) {
+                    failures -= outcomes[next] ? 1 : 0;
+                } else {
+                    recorded++;
+                }
+                outcomes[next] = failure;
+                failures += failure ? 1 : 0;
+                next = (next + 1) % outcomes.length;
+                if (recorded >= minimumCalls && failures * 100 >= failureRateThreshold * recorded) {
+                    open();
+                }
+            }
+            case OPEN -> {
+                // ответ на вызов, начатый до размыкания, — окно уже неактуально
+            }
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized long retryAfterSeconds() {
+        long left = state == State.OPEN ? openNanos - (nanoTime.getAsLong() - openedAt) : 0;
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(left + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = nanoTime.getAsLong();
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        recorded = 0;
+        next = 0;
+        failures = 0;
+    }
+}
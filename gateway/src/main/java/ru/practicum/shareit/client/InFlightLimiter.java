@@ -0,0 +1,40 @@
+package ru.practicum.shareit.client;
+
+import ru.practicum.shareit.exception.ServerOverloadedException;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ограничивает число одновременных запросов гейтвея к серверу. Запрос, не дождавшийся разрешения за wait,
+ * отклоняется сразу, а не встаёт в очередь к пулу соединений.
+ */
+public class InFlightLimiter {
+    private final Semaphore permits;
+    private final long waitNanos;
+
+    public InFlightLimiter(int maxInFlight, Duration wait) {
+        this.permits = new Semaphore(maxInFlight);
+        this.waitNanos = wait.toNanos();
+    }
+
+    public void acquire() {
+        try {
+            if (!permits.tryAcquire(waitNanos, TimeUnit.NANOSECONDS)) {
+                throw new ServerOverloadedException();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServerOverloadedException();
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public int available() {
+        return permits.availablePermits();
+    }
+}
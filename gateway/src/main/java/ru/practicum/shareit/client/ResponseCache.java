@@ -0,0 +1,103 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Кэш ответов сервера на чтение отдельных ресурсов (вещь, запрос, пользователь). Ответы хранятся по ресурсу
+ * и внутри него по пользователю, потому что сервер отдаёт владельцу и остальным разные представления; так сброс
+ * ресурса удаляет одну запись, не перебирая кэш. Вес записи равен числу ответов в ней. В пределах freshness
+ * ответ отдаётся без обращения к серверу, позже — после ревалидации по If-None-Match.
+ */
+public class ResponseCache {
+    private final Cache<String, Map<String, CachedResponse>> cache;
+    private final long freshnessNanos;
+    private final LongSupplier nanoTime;
+
+    public ResponseCache(long maxEntries, Duration freshness) {
+        this(maxEntries, freshness, System::nanoTime);
+    }
+
+    ResponseCache(long maxEntries, Duration freshness, LongSupplier nanoTime) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxEntries)
+                .weigher((String resource, Map<String, CachedResponse> responses) -> responses.size())
+                .build();
+        this.freshnessNanos = freshness.toNanos();
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * @param fetch запрос к серверу; аргумент — ETag закэшированного ответа для If-None-Match или null
+     */
+    public ResponseEntity<Object> get(String resource, @Nullable Long userId,
+                                      Function<String, ResponseEntity<byte[]>> fetch) {
+        String user = String.valueOf(userId);
+        Map<String, CachedResponse> responses = cache.getIfPresent(resource);
+        CachedResponse cached = responses == null ? null : responses.get(user);
+        if (cached != null && nanoTime.getAsLong() - cached.validatedAt < freshnessNanos) {
+            return cached.toResponse();
+        }
+        ResponseEntity<byte[]> response = fetch.apply(cached == null ? null : cached.eTag);
+        if (response.getStatusCode() == HttpStatus.NOT_MODIFIED && cached != null) {
+            put(resource, user, new CachedResponse(cached.headers, cached.body, cached.eTag, nanoTime.getAsLong()));
+            return cached.toResponse();
+        }
+        String eTag = response.getHeaders().getETag();
+        if (response.getStatusCode() == HttpStatus.OK && eTag != null && response.getBody() != null) {
+            put(resource, user, new CachedResponse(response.getHeaders(), response.getBody(), eTag, nanoTime.getAsLong()));
+        } else {
+            cache.asMap().computeIfPresent(resource, (r, cachedResponses) -> {
+                cachedResponses.remove(user);
+                return cachedResponses.isEmpty() ? null : cachedResponses;
+            });
+        }
+        return new ResponseEntity<>(response.getBody(), response.getHeaders(), response.getStatusCode());
+    }
+
+    /**
+     * Сбрасывает ответы по ресурсу для всех пользователей. Вызывается после изменений, прошедших через этот гейтвей.
+     */
+    public void evict(String resource) {
+        cache.invalidate(resource);
+    }
+
+    /**
+     * Запись обновляется через compute, чтобы Caffeine пересчитал её вес после добавления ответа.
+     */
+    private void put(String resource, String user, CachedResponse response) {
+        cache.asMap().compute(resource, (r, responses) -> {
+            Map<String, CachedResponse> updated = responses != null ? responses : new ConcurrentHashMap<>();
+            updated.put(user, response);
+            return updated;
+        });
+    }
+
+    private static final class CachedResponse {
+        private final HttpHeaders headers;
+        private final byte[] body;
+        private final String eTag;
+        private final long validatedAt;
+
+        private CachedResponse(HttpHeaders headers, byte[] body, String eTag, long validatedAt) {
+            this.headers = headers;
+            this.body = body;
+            this.eTag = eTag;
+            this.validatedAt = validatedAt;
+        }
+
+        private ResponseEntity<Object> toResponse() {
+            return new ResponseEntity<>(body, headers, HttpStatus.OK);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.ResourceAccessException;
+import ru.practicum.shareit.exception.CircuitOpenException;
+import ru.practicum.shareit.exception.ServerOverloadedException;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker и bulkhead одного маршрута. Bulkhead ограничивает число одновременных вызовов маршрута,
+ * так что медленный маршрут занимает только свою долю соединений и общего лимита in-flight.
+ */
+public class RouteGuard {
+    private final String route;
+    private final CircuitBreaker circuitBreaker;
+    private final InFlightLimiter bulkhead;
+    private final long slowCallNanos;
+    private final LongAdder rejectedOpen = new LongAdder();
+    private final LongAdder rejectedFull = new LongAdder();
+
+    public RouteGuard(String route, ServerClientProperties.Guard guard) {
+        this.route = route;
+        this.circuitBreaker = new CircuitBreaker(guard);
+        this.bulkhead = new InFlightLimiter(guard.getMaxConcurrent(), guard.getBulkheadWait());
+        this.slowCallNanos = guard.getSlowCallDuration().toNanos();
+    }
+
+    public <R> ResponseEntity<R> execute(Supplier<ResponseEntity<R>> call) {
+        if (!circuitBreaker.tryAcquire()) {
+            rejectedOpen.increment();
+            throw new CircuitOpenException(route, circuitBreaker.retryAfterSeconds());
+        }
+        try {
+            bulkhead.acquire();
+        } catch (ServerOverloadedException e) {
+            rejectedFull.increment();
+            circuitBreaker.cancel();
+            throw e;
+        }
+        long start = System.nanoTime();
+        try {
+            ResponseEntity<R> response = call.get();
+            circuitBreaker.record(response.getStatusCode().is5xxServerError()
+                    || System.nanoTime() - start > slowCallNanos);
+            return response;
+        } catch (ResourceAccessException e) {
+            circuitBreaker.record(true);
+            throw e;
+        } catch (RuntimeException e) {
+            circuitBreaker.cancel();
+            throw e;
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("shareit.gateway.circuit.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+                .description("0 - closed, 1 - open, 2 - half-open")
+                .tag("route", route)
+                .register(registry);
+        Gauge.builder("shareit.gateway.bulkhead.available", bulkhead, InFlightLimiter::available)
+                .tag("route", route)
+                .register(registry);
+        FunctionCounter.builder("shareit.gateway.rejected", rejectedOpen, LongAdder::sum)
+                .tag("route", route)
+                .tag("reason", "circuit_open")
+                .register(registry);
+        FunctionCounter.builder("shareit.gateway.rejected", rejectedFull, LongAdder::sum)
+                .tag("route", route)
+                .tag("reason", "bulkhead_full")
+                .register(registry);
+    }
+}
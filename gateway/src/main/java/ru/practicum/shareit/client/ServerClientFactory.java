@@ -0,0 +1,139 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.util.TimeValue;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Общий для всех клиентов пул соединений к серверу. Клиенты различаются только базовым путём и таймаутом ответа.
+ * Состояние пула (занятые, свободные, ожидающие соединения) публикуется в метриках httpcomponents.httpclient.pool.*,
+ * число схлопнутых одинаковых GET — в shareit.gateway.reads с тегом outcome, состояние circuit breaker'ов
+ * и отказы по маршрутам — в shareit.gateway.circuit.state, shareit.gateway.bulkhead.available и shareit.gateway.rejected.
+ */
+@Component
+@EnableConfigurationProperties(ServerClientProperties.class)
+public class ServerClientFactory implements MeterBinder {
+    private static final String POOL_NAME = "shareit-server";
+
+    private final ServerClientProperties properties;
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final CloseableHttpClient httpClient;
+    @Getter
+    private final InFlightLimiter inFlightLimiter;
+    @Getter
+    private final boolean passthrough;
+    @Getter
+    private final ResponseCache responseCache;
+    @Getter
+    private final SingleFlight singleFlight;
+    private final Map<String, RouteGuard> routeGuards = new ConcurrentHashMap<>();
+    private MeterRegistry registry;
+
+    public ServerClientFactory(ServerClientProperties properties) {
+        this.properties = properties;
+        this.connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(properties.getMaxConnections())
+                .setMaxConnPerRoute(properties.getMaxConnectionsPerRoute())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(properties.getConnectTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                        .setValidateAfterInactivity(properties.getValidateAfterInactivity().toMillis(), TimeUnit.MILLISECONDS)
+                        .setTimeToLive(properties.getConnectionTimeToLive().toMillis(), TimeUnit.MILLISECONDS)
+                        .build())
+                .build();
+        this.httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setKeepAliveStrategy(new KeepAliveStrategy(TimeValue.ofMilliseconds(properties.getKeepAlive().toMillis())))
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(properties.getMaxIdleTime().toMillis()))
+                .build();
+        this.inFlightLimiter = new InFlightLimiter(properties.getMaxInFlight(), properties.getInFlightWait());
+        this.passthrough = properties.isPassthrough();
+        this.singleFlight = properties.isCoalesceReads() ? new SingleFlight() : null;
+        this.responseCache = new ResponseCache(properties.getResponseCacheSize(), properties.getResponseCacheFreshness());
+    }
+
+    public RestTemplate restTemplate(String apiPrefix, RestTemplateBuilder builder) {
+        HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
+        requestFactory.setConnectionRequestTimeout(properties.getConnectionRequestTimeout());
+        requestFactory.setReadTimeout(properties.responseTimeout(apiPrefix.substring(1)));
+        return builder
+                .uriTemplateHandler(new DefaultUriBuilderFactory(properties.getUrl() + apiPrefix))
+                .requestFactory(() -> requestFactory)
+                .build();
+    }
+
+    public RouteGuard routeGuard(String route) {
+        RouteGuard guard = routeGuards.get(route);
+        return guard != null ? guard : createRouteGuard(route);
+    }
+
+    private synchronized RouteGuard createRouteGuard(String route) {
+        return routeGuards.computeIfAbsent(route, key -> {
+            RouteGuard guard = new RouteGuard(key, properties.guard(key));
+            if (registry != null) {
+                guard.bindTo(registry);
+            }
+            return guard;
+        });
+    }
+
+    @Override
+    public synchronized void bindTo(MeterRegistry registry) {
+        this.registry = registry;
+        routeGuards.values().forEach(guard -> guard.bindTo(registry));
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, POOL_NAME).bindTo(registry);
+        if (singleFlight != null) {
+            FunctionCounter.builder("shareit.gateway.reads", singleFlight, SingleFlight::executedCount)
+                    .tag("outcome", "upstream")
+                    .register(registry);
+            FunctionCounter.builder("shareit.gateway.reads", singleFlight, SingleFlight::coalescedCount)
+                    .tag("outcome", "coalesced")
+                    .register(registry);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        httpClient.close();
+    }
+
+    /**
+     * Держит соединение столько, сколько разрешил сервер в заголовке Keep-Alive, а без заголовка — keepAlive из настроек.
+     */
+    private static class KeepAliveStrategy extends DefaultConnectionKeepAliveStrategy {
+        private final TimeValue keepAlive;
+
+        KeepAliveStrategy(TimeValue keepAlive) {
+            this.keepAlive = keepAlive;
+        }
+
+        @Override
+        public TimeValue getKeepAliveDuration(HttpResponse response, HttpContext context) {
+            TimeValue fromServer = super.getKeepAliveDuration(response, context);
+            return fromServer != null && response.containsHeader("Keep-Alive") ? fromServer : keepAlive;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package ru.practicum.shareit.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "shareit-server")
+public class ServerClientProperties {
+    private String url;
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration connectionRequestTimeout = Duration.ofSeconds(1);
+    private Duration responseTimeout = Duration.ofSeconds(5);
+    /**
+     * Таймауты ответа по маршрутам (users, items, bookings, requests), перекрывают responseTimeout.
+     */
+    private Map<String, Duration> routeTimeouts = new HashMap<>();
+    private int maxConnections = 200;
+    private int maxConnectionsPerRoute = 200;
+    private Duration keepAlive = Duration.ofSeconds(30);
+    private Duration maxIdleTime = Duration.ofSeconds(30);
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+    private Duration connectionTimeToLive = Duration.ofMinutes(5);
+    private int maxInFlight = 500;
+    private Duration inFlightWait = Duration.ofMillis(100);
+    /**
+     * Передавать тело ответа сервера клиенту как есть, без разбора JSON в гейтвее.
+     */
+    private boolean passthrough = true;
+    /**
+     * Схлопывать одинаковые одновременные GET в один запрос к серверу.
+     */
+    private boolean coalesceReads = true;
+    private long responseCacheSize = 10_000;
+    /**
+     * Сколько закэшированный ответ отдаётся без ревалидации на сервере.
+     */
+    private Duration responseCacheFreshness = Duration.ofSeconds(1);
+
+    /**
+     * Circuit breaker и bulkhead по умолчанию и для отдельных маршрутов (users, items, items-search, bookings,
+     * requests). Настройки маршрута задаются целиком, незаданные поля берутся из значений по умолчанию класса Guard.
+     */
+    private Guard defaultGuard = new Guard();
+    private Map<String, Guard> routeGuards = new HashMap<>();
+
+    public Duration responseTimeout(String route) {
+        return routeTimeouts.getOrDefault(route, responseTimeout);
+    }
+
+    public Guard guard(String route) {
+        return routeGuards.getOrDefault(route, defaultGuard);
+    }
+
+    @Data
+    public static class Guard {
+        private int maxConcurrent = 100;
+        private Duration bulkheadWait = Duration.ofMillis(20);
+        private int window = 20;
+        private int minimumCalls = 10;
+        private int failureRateThreshold = 50;
+        private Duration slowCallDuration = Duration.ofSeconds(2);
+        private Duration openDuration = Duration.ofSeconds(5);
+        private int halfOpenCalls = 3;
+    }
+}
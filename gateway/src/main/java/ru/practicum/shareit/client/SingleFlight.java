@@ -0,0 +1,54 @@
+package ru.practicum.shareit.client;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Схлопывает одинаковые одновременные запросы: первый идёт на сервер, остальные ждут и получают его результат,
+ * включая исключение. Завершённый запрос сразу удаляется, так что результат не переживает сам вызов.
+ */
+public class SingleFlight {
+    private final ConcurrentMap<String, CompletableFuture<Object>> calls = new ConcurrentHashMap<>();
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, Supplier<T> call) {
+        CompletableFuture<Object> own = new CompletableFuture<>();
+        CompletableFuture<Object> running = calls.putIfAbsent(key, own);
+        if (running != null) {
+            coalesced.increment();
+            try {
+                return (T) running.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+        executed.increment();
+        try {
+            T result = call.get();
+            own.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            calls.remove(key, own);
+        }
+    }
+
+    public long executedCount() {
+        return executed.sum();
+    }
+
+    public long coalescedCount() {
+        return coalesced.sum();
+    }
+}
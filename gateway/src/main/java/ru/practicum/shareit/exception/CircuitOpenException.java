@@ -0,0 +1,13 @@
+package ru.practicum.shareit.exception;
+
+import lombok.Getter;
+
+@Getter
+public class CircuitOpenException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public CircuitOpenException(String route, long retryAfterSeconds) {
+        super("Сервис " + route + " временно недоступен, повторите запрос позже");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -1,11 +1,17 @@
 package ru.practicum.shareit.exception;
 
+import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.net.SocketTimeoutException;
 
 @RestControllerAdvice
 @Slf4j
@@ -17,6 +23,40 @@ public class ErrorHandler {
         return new ErrorResponse(e.getMessage(), "");
     }
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ErrorResponse handleServerOverloaded(final ServerOverloadedException e) {
+        log.warn(e.getMessage());
+        return new ErrorResponse(e.getMessage(), "");
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<ErrorResponse> handleTooManyRequests(final TooManyRequestsException e) {
+        log.debug(e.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(new ErrorResponse(e.getMessage(), ""));
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<ErrorResponse> handleCircuitOpen(final CircuitOpenException e) {
+        log.warn(e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(new ErrorResponse(e.getMessage(), ""));
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<ErrorResponse> handleServerUnavailable(final ResourceAccessException e) {
+        log.warn(e.getMessage());
+        if (e.getCause() instanceof SocketTimeoutException) {
+            return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT)
+                    .body(new ErrorResponse("Сервер не ответил вовремя", e.getMessage()));
+        }
+        return ResponseEntity.status(HttpStatus.BAD_GATEWAY)
+                .body(new ErrorResponse("Сервер недоступен", e.getMessage()));
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ErrorResponse handleGeneralError(final Throwable e) {
@@ -24,7 +64,7 @@ public class ErrorHandler {
         return new ErrorResponse(e.getMessage(), "");
     }
 
-    @ExceptionHandler({ValidationException.class, MethodArgumentNotValidException.class})
+    @ExceptionHandler({ValidationException.class, MethodArgumentNotValidException.class, ConstraintViolationException.class})
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponse handleValidationError(final Exception e) {
         log.warn(e.getMessage());
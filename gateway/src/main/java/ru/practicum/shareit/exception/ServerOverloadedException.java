@@ -0,0 +1,7 @@
+package ru.practicum.shareit.exception;
+
+public class ServerOverloadedException extends RuntimeException {
+    public ServerOverloadedException() {
+        super("Сервер перегружен, повторите запрос позже");
+    }
+}
@@ -1,36 +1,32 @@
 package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.ClientHttpRequestFactory;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerClientFactory;
 import ru.practicum.shareit.item.comments.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
 import java.util.Map;
-import java.util.function.Supplier;
 
 @Service
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory((Supplier<ClientHttpRequestFactory>)HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public ItemClient(ServerClientFactory clientFactory, RestTemplateBuilder builder) {
+        super(clientFactory, API_PREFIX, builder);
+    }
+
+    @Override
+    protected String route(String path) {
+        return path.startsWith("/search") || path.startsWith("/suggest") ? "items-search" : super.route(path);
     }
 
     public ResponseEntity<Object> getItemById(Long itemId, Long userId) {
-        return get("/" + itemId, userId);
+        return getCached("/" + itemId, userId);
     }
 
     public ResponseEntity<Object> findItemsByOwnerId(Long userId, int from, int size) {
@@ -50,6 +46,14 @@ public class ItemClient extends BaseClient {
         return get("/search?text={text}&from={from}&size={size}", null, parameters);
     }
 
+    public ResponseEntity<Object> suggestItemNames(String prefix, int size) {
+        Map<String, Object> parameters = Map.of(
+                "prefix", prefix,
+                "size", size
+        );
+        return get("/suggest?prefix={prefix}&size={size}", null, parameters);
+    }
+
     public ResponseEntity<Object> addItem(Long userId, ItemDto itemDto) {
         return post("", userId, itemDto);
     }
@@ -1,8 +1,10 @@
 package ru.practicum.shareit.item;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.Cacheable;
@@ -20,6 +22,8 @@ import ru.practicum.shareit.item.dto.ItemDto;
 @Validated
 @RequestMapping("/items")
 public class ItemController {
+    private static final int MAX_SEARCH_LENGTH = 255;
+
     private final ItemClient client;
     private static final String USER_HEADER_ID = "X-Sharer-User-Id";
 
@@ -38,13 +42,20 @@ public class ItemController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> searchItemsByPhrase(@RequestParam("text") String searchPhrase,
+    public ResponseEntity<Object> searchItemsByPhrase(@Size(max = MAX_SEARCH_LENGTH) @RequestParam("text") String searchPhrase,
                                                       @PositiveOrZero @RequestParam(defaultValue = "0") int from,
                                                       @Positive @RequestParam(defaultValue = "10") int size) {
         log.info("Get items by phrase with text={}, from={}, size={}", searchPhrase, from, size);
         return client.searchItemsByPhrase(searchPhrase, from, size);
     }
 
+    @GetMapping("/suggest")
+    public ResponseEntity<Object> suggestItemNames(@RequestParam String prefix,
+                                                   @Positive @Max(20) @RequestParam(defaultValue = "10") int size) {
+        log.info("Get item name suggestions with prefix={}, size={}", prefix, size);
+        return client.suggestItemNames(prefix, size);
+    }
+
     @PostMapping
     public ResponseEntity<Object> addItem(@RequestHeader(USER_HEADER_ID) Long userId, @RequestBody ItemDto itemDto) {
         isValidForCreation(itemDto);
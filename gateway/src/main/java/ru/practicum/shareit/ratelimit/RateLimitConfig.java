@@ -0,0 +1,20 @@
+package ru.practicum.shareit.ratelimit;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@ConditionalOnProperty(name = "shareit.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class RateLimitConfig implements WebMvcConfigurer {
+    private final RateLimitInterceptor rateLimitInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(rateLimitInterceptor)
+                .excludePathPatterns("/actuator/**", "/error");
+    }
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.ratelimit;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import ru.practicum.shareit.exception.TooManyRequestsException;
+
+/**
+ * Отклоняет запрос с 429 до вызова контроллера, а значит и до обращения к серверу. Запросы без
+ * X-Sharer-User-Id (регистрация пользователя и т.п.) считаются по адресу клиента.
+ */
+@Component
+@RequiredArgsConstructor
+public class RateLimitInterceptor implements HandlerInterceptor {
+    private static final String USER_HEADER_ID = "X-Sharer-User-Id";
+
+    private final TokenBucketRateLimiter rateLimiter;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String userId = request.getHeader(USER_HEADER_ID);
+        String client = userId != null ? "u" + userId : "a" + request.getRemoteAddr();
+        long waitNanos = rateLimiter.tryAcquire(request.getRequestURI(), client);
+        if (waitNanos > 0) {
+            throw new TooManyRequestsException(TokenBucketRateLimiter.toRetryAfterSeconds(waitNanos));
+        }
+        return true;
+    }
+}
@@ -0,0 +1,44 @@
+package ru.practicum.shareit.ratelimit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.rate-limit")
+public class RateLimitProperties {
+    private boolean enabled = true;
+    /**
+     * Сколько корзин держится одновременно. Самые давно не использованные вытесняются первыми.
+     */
+    private long maxBuckets = 1_000_000;
+    /**
+     * Корзина без запросов дольше этого времени удаляется. Должно быть не меньше времени полного пополнения
+     * самой медленной корзины, иначе вытесненный пользователь получит полную корзину раньше срока.
+     */
+    private Duration idleTimeout = Duration.ofMinutes(5);
+    private Limit defaultLimit = new Limit(null, 100, 50);
+    /**
+     * Лимиты для путей; выбирается правило с самым длинным подходящим префиксом из целых сегментов пути.
+     */
+    private List<Limit> routes = new ArrayList<>();
+
+    @Data
+    public static class Limit {
+        private String path;
+        private int capacity;
+        private double refillPerSecond;
+
+        public Limit() {
+        }
+
+        public Limit(String path, int capacity, double refillPerSecond) {
+            this.path = path;
+            this.capacity = capacity;
+            this.refillPerSecond = refillPerSecond;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package ru.practicum.shareit.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket в форме GCRA: состояние корзины — одно число, теоретическое время прихода следующего запроса,
+ * и списание токена — один CAS без блокировок. Корзины лежат в кэше ограниченного размера с вытеснением
+ * простаивающих, так что память не растёт с числом пользователей.
+ */
+@Component
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class TokenBucketRateLimiter {
+    private final List<Rule> rules;
+    private final Rule defaultRule;
+    private final Cache<String, AtomicLong> buckets;
+    private final LongSupplier nanoTime;
+
+    @Autowired
+    public TokenBucketRateLimiter(RateLimitProperties properties) {
+        this(properties, System::nanoTime);
+    }
+
+    TokenBucketRateLimiter(RateLimitProperties properties, LongSupplier nanoTime) {
+        this.rules = properties.getRoutes().stream()
+                .map(Rule::new)
+                .sorted(Comparator.comparingInt((Rule rule) -> rule.path.length()).reversed())
+                .toList();
+        this.defaultRule = new Rule(properties.getDefaultLimit());
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxBuckets())
+                .expireAfterAccess(properties.getIdleTimeout())
+                .build();
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * @return 0, если запрос разрешён, иначе через сколько наносекунд освободится токен
+     */
+    public long tryAcquire(String path, String client) {
+        Rule rule = rule(path);
+        long now = nanoTime.getAsLong();
+        AtomicLong arrival = buckets.get(rule.key + "|" + client, key -> new AtomicLong(now));
+        while (true) {
+            long theoretical = arrival.get();
+            long next = Math.max(theoretical, now) + rule.intervalNanos;
+            long excess = next - now - rule.burstNanos;
+            if (excess > 0) {
+                return excess;
+            }
+            if (arrival.compareAndSet(theoretical, next)) {
+                return 0;
+            }
+        }
+    }
+
+    public static long toRetryAfterSeconds(long waitNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+
+    private Rule rule(String path) {
+        for (Rule rule : rules) {
+            if (rule.matches(path)) {
+                return rule;
+            }
+        }
+        return defaultRule;
+    }
+
+    private static final class Rule {
+        private final String path;
+        private final String prefix;
+        private final String key;
+        private final long intervalNanos;
+        private final long burstNanos;
+
+        private Rule(RateLimitProperties.Limit limit) {
+            this.path = limit.getPath() == null ? "" : limit.getPath();
+            this.prefix = path.endsWith("/") ? path : path + "/";
+            this.key = limit.getPath() == null ? "*" : limit.getPath();
+            this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / limit.getRefillPerSecond());
+            this.burstNanos = intervalNanos * limit.getCapacity();
+        }
+
+        /**
+         * Путь правила сравнивается по целым сегментам: /items/search подходит для /items/search/...,
+         * но не для /items/searchable.
+         */
+        private boolean matches(String requestPath) {
+            return requestPath.equals(path) || requestPath.startsWith(prefix);
+        }
+    }
+}
@@ -1,31 +1,22 @@
 package ru.practicum.shareit.request;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.ClientHttpRequestFactory;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerClientFactory;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import java.util.Map;
-import java.util.function.Supplier;
 
 @Service
 public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory((Supplier<ClientHttpRequestFactory>) HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public ItemRequestClient(ServerClientFactory clientFactory, RestTemplateBuilder builder) {
+        super(clientFactory, API_PREFIX, builder);
     }
 
     public ResponseEntity<Object> addItemRequest(ItemRequestDto itemRequestDto, Long userId) {
@@ -42,6 +33,6 @@ public class ItemRequestClient extends BaseClient {
     }
 
     public ResponseEntity<Object> findRequestById(Long userId, Long requestId) {
-        return get("/" + requestId, userId);
+        return getCached("/" + requestId, userId);
     }
 }
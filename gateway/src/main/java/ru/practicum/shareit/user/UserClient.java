@@ -1,30 +1,20 @@
 package ru.practicum.shareit.user;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.ClientHttpRequestFactory;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerClientFactory;
 import ru.practicum.shareit.user.dto.UserDto;
 
-import java.util.function.Supplier;
-
 @Service
 public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory((Supplier<ClientHttpRequestFactory>) HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public UserClient(ServerClientFactory clientFactory, RestTemplateBuilder builder) {
+        super(clientFactory, API_PREFIX, builder);
     }
 
     public ResponseEntity<Object> getAllUsers() {
@@ -32,7 +22,7 @@ public class UserClient extends BaseClient {
     }
 
     public ResponseEntity<Object> getUserById(Long userId) {
-        return get("/" + userId);
+        return getCached("/" + userId, null);
     }
 
     public ResponseEntity<Object> createUser(UserDto userDto) {
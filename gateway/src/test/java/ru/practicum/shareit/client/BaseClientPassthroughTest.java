@@ -0,0 +1,101 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.client.MockRestServiceServer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+public class BaseClientPassthroughTest {
+    private static final String BODY = "{\"id\":1,\"name\":\"Дрель\",\"extra\":{\"nested\":[1,2,3]}}";
+
+    private ServerClientFactory factory;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        factory.close();
+    }
+
+    @Test
+    void testServerBodyIsPassedThroughAsBytes() {
+        TestClient client = client(true);
+        MockRestServiceServer server = MockRestServiceServer.bindTo(client.rest).build();
+        byte[] body = BODY.getBytes(StandardCharsets.UTF_8);
+        server.expect(requestTo("http://server/items/1"))
+                .andExpect(header("X-Sharer-User-Id", "7"))
+                .andRespond(withSuccess(body, MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.ETAG, "\"i1-0\"")
+                        .header(HttpHeaders.CONNECTION, "keep-alive"));
+
+        ResponseEntity<Object> response = client.find(1, 7);
+
+        server.verify();
+        assertThat(response.getBody(), instanceOf(byte[].class));
+        assertThat(response.getBody(), equalTo(body));
+        assertThat(response.getHeaders().getETag(), equalTo("\"i1-0\""));
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONNECTION), nullValue());
+    }
+
+    @Test
+    void testErrorBodyIsPassedThroughWithServerStatus() {
+        TestClient client = client(true);
+        MockRestServiceServer server = MockRestServiceServer.bindTo(client.rest).build();
+        byte[] body = "{\"error\":\"Предмет не найден\"}".getBytes(StandardCharsets.UTF_8);
+        server.expect(requestTo("http://server/items/2"))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(body));
+
+        ResponseEntity<Object> response = client.find(2, 7);
+
+        assertThat(response.getStatusCode().value(), equalTo(404));
+        assertThat(response.getBody(), equalTo(body));
+    }
+
+    @Test
+    void testBodyIsParsedWhenPassthroughIsOff() {
+        TestClient client = client(false);
+        MockRestServiceServer server = MockRestServiceServer.bindTo(client.rest).build();
+        server.expect(requestTo("http://server/items/1"))
+                .andRespond(withSuccess(BODY, MediaType.APPLICATION_JSON));
+
+        ResponseEntity<Object> response = client.find(1, 7);
+
+        assertThat(response.getBody(), instanceOf(Map.class));
+    }
+
+    private TestClient client(boolean passthrough) {
+        ServerClientProperties properties = new ServerClientProperties();
+        properties.setUrl("http://server");
+        properties.setPassthrough(passthrough);
+        properties.setCoalesceReads(false);
+        factory = new ServerClientFactory(properties);
+        return new TestClient(factory);
+    }
+
+    private static class TestClient extends BaseClient {
+        TestClient(ServerClientFactory factory) {
+            super(factory, "/items", new RestTemplateBuilder());
+        }
+
+        ResponseEntity<Object> find(long itemId, long userId) {
+            return get("/" + itemId, userId);
+        }
+    }
+}
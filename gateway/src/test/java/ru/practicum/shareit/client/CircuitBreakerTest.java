@@ -0,0 +1,104 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+public class CircuitBreakerTest {
+    private static final Duration OPEN_DURATION = Duration.ofSeconds(5);
+
+    private final AtomicLong now = new AtomicLong();
+    private final CircuitBreaker breaker = new CircuitBreaker(guard(), now::get);
+
+    @Test
+    void testStaysClosedUntilMinimumCallsAreRecorded() {
+        record(true, true, true);
+
+        assertThat(breaker.getState(), equalTo(CircuitBreaker.State.CLOSED));
+        assertThat(breaker.tryAcquire(), equalTo(true));
+    }
+
+    @Test
+    void testOpensWhenFailureRateReachesThreshold() {
+        record(false, false, false, false, true, true);
+        assertThat(breaker.getState(), equalTo(CircuitBreaker.State.CLOSED));
+
+        record(true);
+
+        assertThat(breaker.getState(), equalTo(CircuitBreaker.State.OPEN));
+        assertThat(breaker.tryAcquire(), equalTo(false));
+        assertThat(breaker.retryAfterSeconds(), equalTo(5L));
+        now.addAndGet(Duration.ofMillis(3500).toNanos());
+        assertThat(breaker.retryAfterSeconds(), equalTo(2L));
+    }
+
+    @Test
+    void testHalfOpenAdmitsLimitedProbesAndClosesAfterTheyAllSucceed() {
+        open();
+        now.addAndGet(OPEN_DURATION.toNanos());
+
+        assertThat(breaker.tryAcquire(), equalTo(true));
+        assertThat(breaker.getState(), equalTo(CircuitBreaker.State.HALF_OPEN));
+        assertThat(breaker.tryAcquire(), equalTo(true));
+        assertThat(breaker.tryAcquire(), equalTo(false));
+
+        record(false, false);
+
+        assertThat(breaker.getState(), equalTo(CircuitBreaker.State.CLOSED));
+        record(true, true, true);
+        assertThat(breaker.getState(), equalTo(CircuitBreaker.State.CLOSED));
+    }
+
+    @Test
+    void testProbeFailureReopensForFullOpenDuration() {
+        open();
+        now.addAndGet(OPEN_DURATION.toNanos());
+        assertThat(breaker.tryAcquire(), equalTo(true));
+
+        record(true);
+
+        assertThat(breaker.getState(), equalTo(CircuitBreaker.State.OPEN));
+        now.addAndGet(OPEN_DURATION.toNanos() - 1);
+        assertThat(breaker.tryAcquire(), equalTo(false));
+        now.addAndGet(1);
+        assertThat(breaker.tryAcquire(), equalTo(true));
+    }
+
+    @Test
+    void testCancelledProbeReturnsItsPermit() {
+        open();
+        now.addAndGet(OPEN_DURATION.toNanos());
+        assertThat(breaker.tryAcquire(), equalTo(true));
+        assertThat(breaker.tryAcquire(), equalTo(true));
+
+        breaker.cancel();
+
+        assertThat(breaker.tryAcquire(), equalTo(true));
+        assertThat(breaker.tryAcquire(), equalTo(false));
+    }
+
+    private void open() {
+        record(true, true, true, true);
+        assertThat(breaker.getState(), equalTo(CircuitBreaker.State.OPEN));
+    }
+
+    private void record(boolean... failures) {
+        for (boolean failure : failures) {
+            breaker.record(failure);
+        }
+    }
+
+    private static ServerClientProperties.Guard guard() {
+        ServerClientProperties.Guard guard = new ServerClientProperties.Guard();
+        guard.setWindow(4);
+        guard.setMinimumCalls(4);
+        guard.setFailureRateThreshold(75);
+        guard.setOpenDuration(OPEN_DURATION);
+        guard.setHalfOpenCalls(2);
+        return guard;
+    }
+}
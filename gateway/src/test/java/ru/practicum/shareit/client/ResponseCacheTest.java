@@ -0,0 +1,104 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+
+public class ResponseCacheTest {
+    private static final String ITEM = "/items/1";
+
+    private final AtomicLong now = new AtomicLong();
+    private final ResponseCache cache = new ResponseCache(100, Duration.ofSeconds(1), now::get);
+    private final List<String> revalidations = new ArrayList<>();
+
+    @Test
+    void testFreshResponseIsServedWithoutServer() {
+        get(ITEM, 1L, ok("v1", "first"));
+        now.addAndGet(Duration.ofMillis(999).toNanos());
+
+        assertThat(body(get(ITEM, 1L, ok("v2", "second"))), equalTo("first"));
+        assertThat(revalidations, contains("null"));
+    }
+
+    @Test
+    void testStaleResponseIsRevalidatedWithETag() {
+        get(ITEM, 1L, ok("v1", "first"));
+        now.addAndGet(Duration.ofSeconds(1).toNanos());
+
+        assertThat(body(get(ITEM, 1L, notModified())), equalTo("first"));
+        assertThat(revalidations, contains("null", "\"v1\""));
+
+        assertThat(body(get(ITEM, 1L, ok("v2", "second"))), equalTo("first"));
+        assertThat(revalidations, contains("null", "\"v1\""));
+
+        now.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertThat(body(get(ITEM, 1L, ok("v2", "second"))), equalTo("second"));
+        assertThat(revalidations, contains("null", "\"v1\"", "\"v1\""));
+    }
+
+    @Test
+    void testResponsesAreKeptPerUser() {
+        get(ITEM, 1L, ok("owner", "owner view"));
+        get(ITEM, 2L, ok("other", "other view"));
+        get(ITEM, null, ok("anonymous", "anonymous view"));
+
+        assertThat(body(get(ITEM, 1L, ok("x", "x"))), equalTo("owner view"));
+        assertThat(body(get(ITEM, 2L, ok("x", "x"))), equalTo("other view"));
+        assertThat(body(get(ITEM, null, ok("x", "x"))), equalTo("anonymous view"));
+        assertThat(revalidations, contains("null", "null", "null"));
+    }
+
+    @Test
+    void testEvictDropsResourceForAllUsersOnly() {
+        get(ITEM, 1L, ok("v1", "item 1"));
+        get(ITEM, 2L, ok("v1", "item 1"));
+        get("/items/2", 1L, ok("v1", "item 2"));
+
+        cache.evict(ITEM);
+
+        assertThat(body(get(ITEM, 1L, ok("v2", "item 1 updated"))), equalTo("item 1 updated"));
+        assertThat(body(get(ITEM, 2L, ok("v2", "item 1 updated"))), equalTo("item 1 updated"));
+        assertThat(body(get("/items/2", 1L, ok("v2", "x"))), equalTo("item 2"));
+    }
+
+    @Test
+    void testResponseWithoutETagIsNotCached() {
+        get(ITEM, 1L, eTag -> new ResponseEntity<>("plain".getBytes(StandardCharsets.UTF_8), HttpStatus.OK));
+
+        assertThat(body(get(ITEM, 1L, ok("v1", "tagged"))), equalTo("tagged"));
+        assertThat(revalidations, contains("null", "null"));
+    }
+
+    private ResponseEntity<Object> get(String resource, Long userId, Function<String, ResponseEntity<byte[]>> server) {
+        return cache.get(resource, userId, eTag -> {
+            revalidations.add(String.valueOf(eTag));
+            return server.apply(eTag);
+        });
+    }
+
+    private static Function<String, ResponseEntity<byte[]>> ok(String eTag, String body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag("\"" + eTag + "\"");
+        return ignored -> new ResponseEntity<>(body.getBytes(StandardCharsets.UTF_8), headers, HttpStatus.OK);
+    }
+
+    private static Function<String, ResponseEntity<byte[]>> notModified() {
+        return ignored -> new ResponseEntity<>(HttpStatus.NOT_MODIFIED);
+    }
+
+    private static String body(ResponseEntity<Object> response) {
+        return new String((byte[]) response.getBody(), StandardCharsets.UTF_8);
+    }
+}
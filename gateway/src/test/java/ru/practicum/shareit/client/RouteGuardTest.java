@@ -0,0 +1,104 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.ResourceAccessException;
+import ru.practicum.shareit.exception.CircuitOpenException;
+import ru.practicum.shareit.exception.ServerOverloadedException;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class RouteGuardTest {
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testBulkheadRejectsCallsOverRouteLimit() throws Exception {
+        RouteGuard guard = guard(1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<ResponseEntity<String>> slow = executor.submit(() -> guard.execute(() -> {
+            started.countDown();
+            await(release);
+            return ResponseEntity.ok("медленный");
+        }));
+        assertThat(started.await(5, TimeUnit.SECONDS), equalTo(true));
+
+        assertThrows(ServerOverloadedException.class, () -> guard.execute(() -> ResponseEntity.ok("быстрый")));
+        assertThat(rejected("bulkhead_full"), equalTo(1.0));
+
+        release.countDown();
+        assertThat(slow.get(5, TimeUnit.SECONDS).getBody(), equalTo("медленный"));
+        assertThat(guard.execute(() -> ResponseEntity.ok("быстрый")).getBody(), equalTo("быстрый"));
+    }
+
+    @Test
+    void testServerErrorsAndConnectFailuresOpenCircuit() {
+        RouteGuard guard = guard(10);
+        guard.execute(() -> ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build());
+        assertThrows(ResourceAccessException.class, () -> guard.execute(() -> {
+            throw new ResourceAccessException("Connection refused");
+        }));
+
+        CircuitOpenException exception = assertThrows(CircuitOpenException.class,
+                () -> guard.execute(() -> ResponseEntity.ok("не вызывается")));
+
+        assertThat(exception.getRetryAfterSeconds(), equalTo(60L));
+        assertThat(rejected("circuit_open"), equalTo(1.0));
+        assertThat(registry.get("shareit.gateway.circuit.state").tag("route", "items").gauge().value(),
+                equalTo((double) CircuitBreaker.State.OPEN.ordinal()));
+    }
+
+    @Test
+    void testClientErrorsDoNotCountAsFailures() {
+        RouteGuard guard = guard(10);
+        for (int i = 0; i < 5; i++) {
+            guard.execute(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+        }
+
+        assertThat(guard.execute(() -> ResponseEntity.ok("ответ")).getBody(), equalTo("ответ"));
+    }
+
+    private RouteGuard guard(int maxConcurrent) {
+        ServerClientProperties.Guard properties = new ServerClientProperties.Guard();
+        properties.setMaxConcurrent(maxConcurrent);
+        properties.setBulkheadWait(Duration.ZERO);
+        properties.setWindow(2);
+        properties.setMinimumCalls(2);
+        properties.setFailureRateThreshold(100);
+        properties.setOpenDuration(Duration.ofMinutes(1));
+        RouteGuard guard = new RouteGuard("items", properties);
+        guard.bindTo(registry);
+        return guard;
+    }
+
+    private double rejected(String reason) {
+        return registry.get("shareit.gateway.rejected").tag("route", "items").tag("reason", reason)
+                .functionCounter().count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class SingleFlightTest {
+    private final SingleFlight singleFlight = new SingleFlight();
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testConcurrentCallsWithSameKeyShareOneResult() throws Exception {
+        Future<String> first = executor.submit(() -> singleFlight.execute("k", blocking(() -> "ответ")));
+        assertThat(started.await(5, TimeUnit.SECONDS), equalTo(true));
+        Future<String> second = executor.submit(() -> singleFlight.execute("k", blocking(() -> "другой ответ")));
+        awaitCoalesced();
+        release.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS), equalTo("ответ"));
+        assertThat(second.get(5, TimeUnit.SECONDS), equalTo("ответ"));
+        assertThat(calls.get(), equalTo(1));
+        assertThat(singleFlight.executedCount(), equalTo(1L));
+    }
+
+    @Test
+    void testFailureIsDeliveredToEveryWaiter() throws Exception {
+        IllegalStateException failure = new IllegalStateException("сервер недоступен");
+        Future<String> first = executor.submit(() -> singleFlight.execute("k", blocking(() -> {
+            throw failure;
+        })));
+        assertThat(started.await(5, TimeUnit.SECONDS), equalTo(true));
+        Future<String> second = executor.submit(() -> singleFlight.execute("k", blocking(() -> "не вызывается")));
+        awaitCoalesced();
+        release.countDown();
+
+        assertThat(assertThrows(ExecutionException.class, () -> first.get(5, TimeUnit.SECONDS)).getCause(),
+                sameInstance(failure));
+        assertThat(assertThrows(ExecutionException.class, () -> second.get(5, TimeUnit.SECONDS)).getCause(),
+                sameInstance(failure));
+        assertThat(calls.get(), equalTo(1));
+    }
+
+    @Test
+    void testCompletedCallIsNotReused() {
+        assertThat(singleFlight.execute("k", () -> calls.incrementAndGet()), equalTo(1));
+        assertThat(singleFlight.execute("k", () -> calls.incrementAndGet()), equalTo(2));
+        assertThat(singleFlight.coalescedCount(), equalTo(0L));
+    }
+
+    private <T> Supplier<T> blocking(Supplier<T> result) {
+        return () -> {
+            calls.incrementAndGet();
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return result.get();
+        };
+    }
+
+    private void awaitCoalesced() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (singleFlight.coalescedCount() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertThat(singleFlight.coalescedCount(), equalTo(1L));
+    }
+}
@@ -0,0 +1,122 @@
+package ru.practicum.shareit.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.exception.ErrorHandler;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class TokenBucketRateLimiterTest {
+    private static final String CLIENT = "u1";
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    void testBurstUpToCapacityThenRefillAtConfiguredRate() {
+        TokenBucketRateLimiter limiter = limiter(new RateLimitProperties.Limit(null, 3, 2));
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire("/items", CLIENT), equalTo(0L));
+        }
+        assertThat(limiter.tryAcquire("/items", CLIENT), equalTo(Duration.ofMillis(500).toNanos()));
+
+        now.addAndGet(Duration.ofMillis(499).toNanos());
+        assertThat(limiter.tryAcquire("/items", CLIENT), equalTo(Duration.ofMillis(1).toNanos()));
+
+        now.addAndGet(Duration.ofMillis(1).toNanos());
+        assertThat(limiter.tryAcquire("/items", CLIENT), equalTo(0L));
+        assertThat(limiter.tryAcquire("/items", CLIENT), greaterThan(0L));
+    }
+
+    @Test
+    void testIdleBucketRefillsOnlyUpToCapacity() {
+        TokenBucketRateLimiter limiter = limiter(new RateLimitProperties.Limit(null, 2, 1));
+        limiter.tryAcquire("/items", CLIENT);
+        limiter.tryAcquire("/items", CLIENT);
+
+        now.addAndGet(Duration.ofMinutes(1).toNanos());
+
+        assertThat(limiter.tryAcquire("/items", CLIENT), equalTo(0L));
+        assertThat(limiter.tryAcquire("/items", CLIENT), equalTo(0L));
+        assertThat(limiter.tryAcquire("/items", CLIENT), greaterThan(0L));
+    }
+
+    @Test
+    void testClientsHaveSeparateBuckets() {
+        TokenBucketRateLimiter limiter = limiter(new RateLimitProperties.Limit(null, 1, 1));
+
+        assertThat(limiter.tryAcquire("/items", CLIENT), equalTo(0L));
+        assertThat(limiter.tryAcquire("/items", CLIENT), greaterThan(0L));
+        assertThat(limiter.tryAcquire("/items", "u2"), equalTo(0L));
+    }
+
+    @Test
+    void testRouteMatchesWholePathSegmentsOnly() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setDefaultLimit(new RateLimitProperties.Limit(null, 100, 1));
+        properties.setRoutes(List.of(
+                new RateLimitProperties.Limit("/bookings", 1, 0.001),
+                new RateLimitProperties.Limit("/items/search", 1, 0.001)));
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(properties, now::get);
+
+        assertThat(limiter.tryAcquire("/bookings", CLIENT), equalTo(0L));
+        assertThat(limiter.tryAcquire("/bookings/1", CLIENT), greaterThan(0L));
+        assertThat(limiter.tryAcquire("/bookingsX", CLIENT), equalTo(0L));
+        assertThat(limiter.tryAcquire("/bookingsX", CLIENT), equalTo(0L));
+
+        assertThat(limiter.tryAcquire("/items/search", CLIENT), equalTo(0L));
+        assertThat(limiter.tryAcquire("/items/searchable", CLIENT), equalTo(0L));
+        assertThat(limiter.tryAcquire("/items/search", CLIENT), greaterThan(0L));
+    }
+
+    @Test
+    void testRetryAfterIsRoundedUpToWholeSeconds() {
+        assertThat(TokenBucketRateLimiter.toRetryAfterSeconds(1), equalTo(1L));
+        assertThat(TokenBucketRateLimiter.toRetryAfterSeconds(Duration.ofSeconds(1).toNanos()), equalTo(1L));
+        assertThat(TokenBucketRateLimiter.toRetryAfterSeconds(Duration.ofMillis(1001).toNanos()), equalTo(2L));
+    }
+
+    @Test
+    void testRejectedRequestGets429WithRetryAfter() throws Exception {
+        TokenBucketRateLimiter limiter = limiter(new RateLimitProperties.Limit(null, 1, 0.5));
+        MockMvc mvc = MockMvcBuilders.standaloneSetup(new PingController())
+                .addInterceptors(new RateLimitInterceptor(limiter))
+                .setControllerAdvice(new ErrorHandler())
+                .build();
+
+        mvc.perform(get("/ping").header("X-Sharer-User-Id", "1"))
+                .andExpect(status().isOk());
+        mvc.perform(get("/ping").header("X-Sharer-User-Id", "1"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "2"));
+        mvc.perform(get("/ping").header("X-Sharer-User-Id", "2"))
+                .andExpect(status().isOk());
+    }
+
+    private TokenBucketRateLimiter limiter(RateLimitProperties.Limit defaultLimit) {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setDefaultLimit(defaultLimit);
+        return new TokenBucketRateLimiter(properties, now::get);
+    }
+
+    @RestController
+    static class PingController {
+        @GetMapping("/ping")
+        String ping() {
+            return "pong";
+        }
+    }
+}
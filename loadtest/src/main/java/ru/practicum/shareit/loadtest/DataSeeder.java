@@ -0,0 +1,178 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Заполняет схему сервера пакетными вставками. Схему создаёт сам сервер при старте, поэтому перед первым
+ * заполнением его запускают с этой базой хотя бы раз. Бронирования каждой вещи идут подряд без пересечений:
+ * примерно половина в прошлом, одно текущее, остальные в будущем.
+ */
+@Slf4j
+@RequiredArgsConstructor
+class DataSeeder {
+    private static final int BATCH_SIZE = 1000;
+
+    private final LoadTestConfig config;
+    private final Connection connection;
+    private final Random random = new Random(42);
+
+    void seed() throws SQLException {
+        checkSchema();
+        connection.setAutoCommit(false);
+        String tag = Long.toString(System.currentTimeMillis(), 36);
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+
+        List<Long> users = seedUsers(tag);
+        List<Long> requests = seedRequests(users, now);
+        List<long[]> items = seedItems(users, requests, tag);
+        int bookings = seedBookings(users, items, now);
+        log.info("Заполнено: {} пользователей, {} запросов, {} вещей, {} бронирований. Перезапустите сервер, "
+                + "чтобы он перестроил индексы", users.size(), requests.size(), items.size(), bookings);
+    }
+
+    private void checkSchema() {
+        try (Statement statement = connection.createStatement()) {
+            statement.executeQuery("SELECT id FROM bookings WHERE 1 = 0").close();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Схема не найдена: запустите сервер с этой базой хотя бы один раз", e);
+        }
+    }
+
+    private List<Long> seedUsers(String tag) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO users (name, email) VALUES (?, ?)")) {
+            for (int i = 0; i < config.getUsers(); i++) {
+                insert.setString(1, "Пользователь " + i);
+                insert.setString(2, "load-" + tag + "-" + i + "@shareit.test");
+                addBatch(insert, i);
+            }
+            finish(insert);
+        }
+        return ids("SELECT id FROM users WHERE email LIKE 'load-" + tag + "-%' ORDER BY id");
+    }
+
+    private List<Long> seedRequests(List<Long> users, LocalDateTime now) throws SQLException {
+        long before = maxId("requests");
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO requests (user_id, description, created) VALUES (?, ?, ?)")) {
+            for (int i = 0; i < config.getRequests(); i++) {
+                insert.setLong(1, pick(users));
+                insert.setString(2, "Нужна " + Vocabulary.name(random) + ". " + Vocabulary.text(random, 50, 400));
+                insert.setTimestamp(3, Timestamp.valueOf(now.minusMinutes(random.nextInt(60 * 24 * 90))));
+                addBatch(insert, i);
+            }
+            finish(insert);
+        }
+        return ids("SELECT id FROM requests WHERE id > " + before + " ORDER BY id");
+    }
+
+    /**
+     * @return пары (id вещи, id владельца)
+     */
+    private List<long[]> seedItems(List<Long> users, List<Long> requests, String tag) throws SQLException {
+        long before = maxId("items");
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO items (user_id, request_id, name, description, available) VALUES (?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < config.getItems(); i++) {
+                insert.setLong(1, users.get(i % users.size()));
+                if (!requests.isEmpty() && random.nextInt(10) == 0) {
+                    insert.setLong(2, pick(requests));
+                } else {
+                    insert.setNull(2, Types.BIGINT);
+                }
+                insert.setString(3, Vocabulary.name(random));
+                insert.setString(4, Vocabulary.text(random, 300, 3000));
+                insert.setBoolean(5, random.nextInt(10) != 0);
+                addBatch(insert, i);
+            }
+            finish(insert);
+        }
+        List<long[]> items = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT id, user_id FROM items WHERE id > " + before + " ORDER BY id")) {
+            while (rs.next()) {
+                items.add(new long[]{rs.getLong(1), rs.getLong(2)});
+            }
+        }
+        return items;
+    }
+
+    private int seedBookings(List<Long> users, List<long[]> items, LocalDateTime now) throws SQLException {
+        int count = 0;
+        int perItem = config.getBookingsPerItem();
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO bookings (booker_id, item_id, start_date, end_date, status) VALUES (?, ?, ?, ?, ?)")) {
+            for (long[] item : items) {
+                for (int slot = 0; slot < perItem; slot++) {
+                    long booker;
+                    do {
+                        booker = pick(users);
+                    } while (booker == item[1] && users.size() > 1);
+                    int offset = slot - perItem / 2;
+                    LocalDateTime start = now.plusDays(offset * 3L).minusDays(1);
+                    LocalDateTime end = start.plusDays(1 + random.nextInt(2));
+                    insert.setLong(1, booker);
+                    insert.setLong(2, item[0]);
+                    insert.setTimestamp(3, Timestamp.valueOf(start));
+                    insert.setTimestamp(4, Timestamp.valueOf(end));
+                    insert.setString(5, status(offset));
+                    addBatch(insert, count++);
+                }
+            }
+            finish(insert);
+        }
+        return count;
+    }
+
+    private String status(int offset) {
+        int roll = random.nextInt(10);
+        if (offset < 0) {
+            return roll == 0 ? "REJECTED" : "APPROVED";
+        }
+        if (offset == 0) {
+            return "APPROVED";
+        }
+        return roll < 5 ? "WAITING" : roll < 9 ? "APPROVED" : "REJECTED";
+    }
+
+    private void addBatch(PreparedStatement insert, int index) throws SQLException {
+        insert.addBatch();
+        if ((index + 1) % BATCH_SIZE == 0) {
+            insert.executeBatch();
+            connection.commit();
+        }
+    }
+
+    private void finish(PreparedStatement insert) throws SQLException {
+        insert.executeBatch();
+        connection.commit();
+    }
+
+    private long maxId(String table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private List<Long> ids(String sql) throws SQLException {
+        List<Long> ids = new ArrayList<>();
+        try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(sql)) {
+            while (rs.next()) {
+                ids.add(rs.getLong(1));
+            }
+        }
+        return ids;
+    }
+
+    private long pick(List<Long> ids) {
+        return ids.get(random.nextInt(ids.size()));
+    }
+}
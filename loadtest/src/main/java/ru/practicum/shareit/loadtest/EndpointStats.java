@@ -0,0 +1,49 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.Getter;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Гистограмма задержек (в микросекундах, до минуты с точностью три значащие цифры) и счётчики ответов
+ * по классам статусов для одного эндпоинта.
+ */
+@Getter
+class EndpointStats {
+    /**
+     * Условный статус для запросов, не получивших ответа: ошибка соединения или таймаут.
+     */
+    static final int IO_ERROR = -1;
+
+    private final String endpoint;
+    private final Histogram latency = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(1), 3);
+    private final LongAdder success = new LongAdder();
+    private final LongAdder clientErrors = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+    private final LongAdder serverErrors = new LongAdder();
+    private final LongAdder ioErrors = new LongAdder();
+
+    EndpointStats(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    void record(int status, long nanos) {
+        if (status == IO_ERROR) {
+            ioErrors.increment();
+            return;
+        }
+        latency.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), latency.getHighestTrackableValue()));
+        if (status == 429) {
+            throttled.increment();
+        } else if (status >= 500) {
+            serverErrors.increment();
+        } else if (status >= 400) {
+            clientErrors.increment();
+        } else {
+            success.increment();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.Getter;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Идентификаторы, из которых нагрузочный тест собирает запросы: пользователи, владельцы, доступные вещи
+ * и ожидающие подтверждения бронирования. Очередь ожидающих пополняется бронированиями, созданными в ходе теста.
+ */
+@Getter
+class IdPool {
+    private final long[] users;
+    private final long[] owners;
+    /**
+     * Пары (id вещи, id владельца).
+     */
+    private final long[][] items;
+    private final ConcurrentLinkedQueue<long[]> waitingBookings = new ConcurrentLinkedQueue<>();
+
+    private IdPool(long[] users, long[] owners, long[][] items) {
+        this.users = users;
+        this.owners = owners;
+        this.items = items;
+    }
+
+    static IdPool load(Connection connection) throws SQLException {
+        IdPool pool = new IdPool(
+                column(connection, "SELECT id FROM users"),
+                column(connection, "SELECT DISTINCT user_id FROM items"),
+                pairs(connection, "SELECT id, user_id FROM items WHERE available = TRUE").toArray(long[][]::new));
+        for (long[] booking : pairs(connection, "SELECT b.id, i.user_id FROM bookings b JOIN items i ON i.id = b.item_id "
+                + "WHERE b.status = 'WAITING' AND b.start_date > CURRENT_TIMESTAMP")) {
+            pool.waitingBookings.add(booking);
+        }
+        if (pool.users.length < 2 || pool.items.length == 0) {
+            throw new IllegalStateException("В базе нет данных для нагрузки: сначала выполните команду seed");
+        }
+        return pool;
+    }
+
+    private static long[] column(Connection connection, String sql) throws SQLException {
+        List<Long> values = new ArrayList<>();
+        try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(sql)) {
+            while (rs.next()) {
+                values.add(rs.getLong(1));
+            }
+        }
+        return values.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static List<long[]> pairs(Connection connection, String sql) throws SQLException {
+        List<long[]> rows = new ArrayList<>();
+        try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(sql)) {
+            while (rs.next()) {
+                rows.add(new long[]{rs.getLong(1), rs.getLong(2)});
+            }
+        }
+        return rows;
+    }
+}
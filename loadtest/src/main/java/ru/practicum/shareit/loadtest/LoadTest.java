@@ -0,0 +1,31 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+
+/**
+ * Генератор нагрузки на гейтвей. Команды:
+ * <ul>
+ *     <li>seed — заполняет базу сервера синтетическими данными (сервер после этого перезапускают,
+ *     чтобы он перестроил индексы в памяти);</li>
+ *     <li>run — гоняет смесь запросов к запущенному гейтвею и печатает пропускную способность и гистограммы
+ *     задержек по эндпоинтам.</li>
+ * </ul>
+ * Параметры передаются как --name=value, список и значения по умолчанию — в {@link LoadTestConfig}.
+ */
+@Slf4j
+public class LoadTest {
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+        try (Connection connection = DriverManager.getConnection(config.getJdbcUrl(), config.getJdbcUser(),
+                config.getJdbcPassword())) {
+            switch (config.getCommand()) {
+                case "seed" -> new DataSeeder(config, connection).seed();
+                case "run" -> new Workload(config, IdPool.load(connection)).run().print(config.getReport());
+                default -> throw new IllegalArgumentException("Неизвестная команда: " + config.getCommand());
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.Getter;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+public class LoadTestConfig {
+    private final String command;
+    /**
+     * База сервера. По умолчанию — PostgreSQL из docker-compose.yml; для H2 сервер запускают с
+     * spring.datasource.url=jdbc:h2:file:...;AUTO_SERVER=TRUE и передают сюда тот же URL.
+     */
+    private final String jdbcUrl;
+    private final String jdbcUser;
+    private final String jdbcPassword;
+    private final int users;
+    private final int requests;
+    private final int items;
+    private final int bookingsPerItem;
+    private final URI gateway;
+    private final int clients;
+    private final Duration warmup;
+    private final Duration duration;
+    private final Map<Operation, Integer> mix;
+    private final Path report;
+
+    private LoadTestConfig(String command, Map<String, String> options) {
+        this.command = command;
+        this.jdbcUrl = options.getOrDefault("jdbc-url", "jdbc:postgresql://localhost:6541/shareit");
+        this.jdbcUser = options.getOrDefault("jdbc-user", "shareit");
+        this.jdbcPassword = options.getOrDefault("jdbc-password", "shareit");
+        this.users = Integer.parseInt(options.getOrDefault("users", "2000"));
+        this.requests = Integer.parseInt(options.getOrDefault("requests", "5000"));
+        this.items = Integer.parseInt(options.getOrDefault("items", "20000"));
+        this.bookingsPerItem = Integer.parseInt(options.getOrDefault("bookings-per-item", "6"));
+        this.gateway = URI.create(options.getOrDefault("gateway", "http://localhost:8080"));
+        this.clients = Integer.parseInt(options.getOrDefault("clients", "200"));
+        this.warmup = Duration.parse("PT" + options.getOrDefault("warmup", "10s"));
+        this.duration = Duration.parse("PT" + options.getOrDefault("duration", "60s"));
+        this.mix = parseMix(options.getOrDefault("mix",
+                "search:40,owner-items:20,booking-create:10,booking-approve:10,request-feed:20"));
+        this.report = Path.of(options.getOrDefault("report", "target/loadtest-report.json"));
+    }
+
+    public static LoadTestConfig parse(String[] args) {
+        if (args.length == 0) {
+            throw new IllegalArgumentException("Укажите команду: seed или run");
+        }
+        Map<String, String> options = new HashMap<>();
+        for (int i = 1; i < args.length; i++) {
+            String arg = args[i];
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("Ожидался параметр вида --name=value: " + arg);
+            }
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        return new LoadTestConfig(args[0], options);
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String part : mix.split(",")) {
+            String[] pair = part.trim().split(":");
+            weights.put(Operation.byName(pair[0]), Integer.parseInt(pair[1]));
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.loadtest;
+
+import java.util.Arrays;
+
+public enum Operation {
+    SEARCH("search", "GET /items/search"),
+    OWNER_ITEMS("owner-items", "GET /items"),
+    BOOKING_CREATE("booking-create", "POST /bookings"),
+    BOOKING_APPROVE("booking-approve", "PATCH /bookings/{id}"),
+    REQUEST_FEED("request-feed", "GET /requests/all");
+
+    private final String name;
+    private final String endpoint;
+
+    Operation(String name, String endpoint) {
+        this.name = name;
+        this.endpoint = endpoint;
+    }
+
+    public String endpoint() {
+        return endpoint;
+    }
+
+    public static Operation byName(String name) {
+        return Arrays.stream(values())
+                .filter(operation -> operation.name.equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Неизвестная операция: " + name));
+    }
+}
@@ -0,0 +1,94 @@
+package ru.practicum.shareit.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Итог прогона: таблица в stdout и JSON-файл. Помимо перцентилей в JSON кладётся сжатая гистограмма
+ * в base64, чтобы прогоны можно было сравнивать и складывать средствами HdrHistogram.
+ */
+@Slf4j
+class Report {
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final Map<String, Object> summary = new LinkedHashMap<>();
+    private final List<Map<String, Object>> endpoints = new ArrayList<>();
+
+    Report(LoadTestConfig config, Collection<EndpointStats> stats, Duration duration) {
+        double seconds = duration.toMillis() / 1000.0;
+        summary.put("timestamp", Instant.now());
+        summary.put("gateway", config.getGateway().toString());
+        summary.put("clients", config.getClients());
+        summary.put("warmupSeconds", config.getWarmup().toSeconds());
+        summary.put("durationSeconds", duration.toSeconds());
+        for (EndpointStats endpoint : stats) {
+            Histogram latency = endpoint.getLatency();
+            long count = latency.getTotalCount() + endpoint.getIoErrors().sum();
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("endpoint", endpoint.getEndpoint());
+            row.put("requests", count);
+            row.put("rps", Math.round(count / seconds * 10) / 10.0);
+            row.put("2xx", endpoint.getSuccess().sum());
+            row.put("4xx", endpoint.getClientErrors().sum());
+            row.put("429", endpoint.getThrottled().sum());
+            row.put("5xx", endpoint.getServerErrors().sum());
+            row.put("ioErrors", endpoint.getIoErrors().sum());
+            Map<String, Double> latencyMs = new LinkedHashMap<>();
+            for (double percentile : PERCENTILES) {
+                latencyMs.put("p" + (percentile == Math.rint(percentile) ? String.valueOf((int) percentile)
+                        : String.valueOf(percentile)), millis(latency.getValueAtPercentile(percentile)));
+            }
+            latencyMs.put("max", millis(latency.getMaxValue()));
+            row.put("latencyMs", latencyMs);
+            row.put("histogram", encode(latency));
+            endpoints.add(row);
+        }
+        summary.put("endpoints", endpoints);
+    }
+
+    void print(Path file) throws IOException {
+        PrintStream out = System.out;
+        out.printf("%-24s %9s %9s %7s %7s %7s %7s %7s %9s %9s %9s %9s %9s%n", "endpoint", "requests", "rps",
+                "2xx", "4xx", "429", "5xx", "io", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Map<String, Object> row : endpoints) {
+            @SuppressWarnings("unchecked")
+            Map<String, Double> latency = (Map<String, Double>) row.get("latencyMs");
+            out.printf("%-24s %9d %9.1f %7d %7d %7d %7d %7d %9.2f %9.2f %9.2f %9.2f %9.2f%n", row.get("endpoint"),
+                    row.get("requests"), row.get("rps"), row.get("2xx"), row.get("4xx"), row.get("429"),
+                    row.get("5xx"), row.get("ioErrors"), latency.get("p50"), latency.get("p90"), latency.get("p99"),
+                    latency.get("p99.9"), latency.get("max"));
+        }
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(file.toFile(), summary);
+        log.info("Отчёт сохранён в {}", file.toAbsolutePath());
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static String encode(Histogram histogram) {
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+        return Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length));
+    }
+}
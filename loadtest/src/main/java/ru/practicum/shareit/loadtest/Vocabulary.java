@@ -0,0 +1,52 @@
+package ru.practicum.shareit.loadtest;
+
+import java.util.Random;
+
+/**
+ * Словарь для названий, описаний и поисковых фраз. Поиск нагрузочного теста берёт слова отсюда же,
+ * поэтому часть запросов находит вещи, а часть — нет, как и в жизни.
+ */
+final class Vocabulary {
+    static final String[] NOUNS = {"дрель", "перфоратор", "пила", "лестница", "палатка", "велосипед", "самокат",
+            "шуруповёрт", "болгарка", "удлинитель", "насос", "генератор", "рюкзак", "спальник", "котелок", "фонарь",
+            "проектор", "колонка", "гитара", "синтезатор", "коляска", "автокресло", "байдарка", "сноуборд", "лыжи",
+            "мангал", "газонокосилка", "мойка", "пылесос", "отпариватель", "стремянка", "домкрат", "компрессор"};
+    static final String[] ADJECTIVES = {"аккумуляторная", "ударная", "складная", "туристическая", "детский",
+            "горный", "электрический", "ручной", "новый", "мощный", "лёгкий", "компактный", "профессиональный",
+            "бензиновый", "надувная", "портативная", "беспроводной", "зимний", "летний", "большой"};
+    static final String[] FILLER = {"в", "хорошем", "состоянии", "с", "зарядкой", "и", "чехлом", "подходит", "для",
+            "дачи", "ремонта", "похода", "поездки", "комплект", "полный", "инструкция", "прилагается", "бережно",
+            "использовать", "вернуть", "чистым", "можно", "забрать", "вечером", "у", "метро"};
+
+    private Vocabulary() {
+    }
+
+    static String name(Random random) {
+        return pick(random, ADJECTIVES) + " " + pick(random, NOUNS);
+    }
+
+    static String text(Random random, int minLength, int maxLength) {
+        int length = minLength + random.nextInt(maxLength - minLength + 1);
+        StringBuilder text = new StringBuilder(length + 20);
+        while (text.length() < length) {
+            if (!text.isEmpty()) {
+                text.append(' ');
+            }
+            int kind = random.nextInt(10);
+            text.append(kind == 0 ? pick(random, NOUNS) : kind == 1 ? pick(random, ADJECTIVES) : pick(random, FILLER));
+        }
+        return text.substring(0, Math.min(text.length(), maxLength));
+    }
+
+    static String searchPhrase(Random random) {
+        return switch (random.nextInt(4)) {
+            case 0 -> pick(random, ADJECTIVES) + " " + pick(random, NOUNS);
+            case 1 -> pick(random, NOUNS).substring(0, 4);
+            default -> pick(random, NOUNS);
+        };
+    }
+
+    private static String pick(Random random, String[] words) {
+        return words[random.nextInt(words.length)];
+    }
+}
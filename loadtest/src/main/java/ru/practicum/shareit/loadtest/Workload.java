@@ -0,0 +1,211 @@
+package ru.practicum.shareit.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Замкнутая модель нагрузки: каждый клиент отправляет следующий запрос сразу после ответа на предыдущий,
+ * выбирая операцию по весам из mix. Клиенты работают на виртуальных потоках, если их поддерживает JVM (21+),
+ * иначе — на пуле обычных потоков того же размера. Результаты за время прогрева в отчёт не попадают.
+ */
+@Slf4j
+class Workload {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final LoadTestConfig config;
+    private final IdPool pool;
+    private final HttpClient http;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Map<Operation, EndpointStats> stats = new EnumMap<>(Operation.class);
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    /**
+     * Новые бронирования занимают непересекающиеся часовые слоты через год от старта, чтобы не конфликтовать
+     * между собой и с заполненными данными.
+     */
+    private final LocalDateTime bookingBase = LocalDateTime.now().plusYears(1).truncatedTo(ChronoUnit.HOURS);
+    private final AtomicLong bookingSlot = new AtomicLong();
+    private volatile long recordFrom;
+
+    Workload(LoadTestConfig config, IdPool pool) {
+        this.config = config;
+        this.pool = pool;
+        this.http = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.operations = config.getMix().keySet().toArray(Operation[]::new);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += config.getMix().get(operations[i]);
+            cumulativeWeights[i] = total;
+            stats.put(operations[i], new EndpointStats(operations[i].endpoint()));
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("Сумма весов в mix должна быть положительной");
+        }
+    }
+
+    Report run() throws InterruptedException {
+        long start = System.nanoTime();
+        recordFrom = start + config.getWarmup().toNanos();
+        long deadline = recordFrom + config.getDuration().toNanos();
+        log.info("Старт: {} клиентов, прогрев {}, замер {}, {}", config.getClients(), config.getWarmup(),
+                config.getDuration(), config.getGateway());
+
+        ExecutorService executor = clientExecutor(config.getClients());
+        for (int i = 0; i < config.getClients(); i++) {
+            executor.execute(() -> client(deadline));
+        }
+        executor.shutdown();
+        if (!executor.awaitTermination(config.getWarmup().plus(config.getDuration()).plus(REQUEST_TIMEOUT).toMillis(),
+                TimeUnit.MILLISECONDS)) {
+            executor.shutdownNow();
+        }
+        return new Report(config, stats.values(), config.getDuration());
+    }
+
+    private void client(long deadline) {
+        Random random = ThreadLocalRandom.current();
+        while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+            Operation operation = pick(random);
+            Call call = call(operation, random);
+            if (call == null) {
+                continue;
+            }
+            long started = System.nanoTime();
+            int status;
+            String body = null;
+            try {
+                HttpResponse<String> response = http.send(call.request(), HttpResponse.BodyHandlers.ofString());
+                status = response.statusCode();
+                body = response.body();
+            } catch (IOException e) {
+                status = EndpointStats.IO_ERROR;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            long finished = System.nanoTime();
+            if (started >= recordFrom) {
+                stats.get(operation).record(status, finished - started);
+            }
+            if (operation == Operation.BOOKING_CREATE && status / 100 == 2) {
+                rememberCreatedBooking(call.itemOwner(), body);
+            }
+        }
+    }
+
+    private Operation pick(Random random) {
+        int roll = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    /**
+     * @return запрос или null, если операцию сейчас не из чего собрать (нет ожидающих подтверждения бронирований)
+     */
+    private Call call(Operation operation, Random random) {
+        switch (operation) {
+            case SEARCH:
+                return get("/items/search?text=" + URLEncoder.encode(Vocabulary.searchPhrase(random), StandardCharsets.UTF_8)
+                        + "&from=0&size=20", pick(pool.getUsers(), random));
+            case OWNER_ITEMS:
+                return get("/items?from=0&size=20", pick(pool.getOwners(), random));
+            case REQUEST_FEED:
+                return get("/requests/all?from=0&size=20", pick(pool.getUsers(), random));
+            case BOOKING_CREATE:
+                return createBooking(random);
+            case BOOKING_APPROVE:
+                long[] booking = pool.getWaitingBookings().poll();
+                return booking == null ? null : new Call(builder("/bookings/" + booking[0] + "?approved=true", booking[1])
+                        .method("PATCH", HttpRequest.BodyPublishers.noBody())
+                        .build(), 0);
+            default:
+                throw new IllegalStateException("Операция не поддерживается: " + operation);
+        }
+    }
+
+    private Call createBooking(Random random) {
+        long[] item = pool.getItems()[random.nextInt(pool.getItems().length)];
+        long booker;
+        do {
+            booker = pick(pool.getUsers(), random);
+        } while (booker == item[1]);
+        LocalDateTime start = bookingBase.plusHours(bookingSlot.getAndIncrement());
+        String body = String.format("{\"itemId\":%d,\"start\":\"%s\",\"end\":\"%s\"}", item[0], start, start.plusMinutes(30));
+        return new Call(builder("/bookings", booker)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build(), item[1]);
+    }
+
+    private void rememberCreatedBooking(long owner, String body) {
+        try {
+            pool.getWaitingBookings().add(new long[]{mapper.readTree(body).path("id").asLong(), owner});
+        } catch (IOException e) {
+            log.debug("Не удалось разобрать ответ на создание бронирования: {}", e.getMessage());
+        }
+    }
+
+    private Call get(String path, long userId) {
+        return new Call(builder(path, userId).GET().build(), 0);
+    }
+
+    private HttpRequest.Builder builder(String path, long userId) {
+        return HttpRequest.newBuilder(URI.create(config.getGateway() + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json")
+                .header(USER_ID_HEADER, Long.toString(userId));
+    }
+
+    /**
+     * @param itemOwner владелец бронируемой вещи — он подтверждает бронирование, созданное этим запросом
+     */
+    private record Call(HttpRequest request, long itemOwner) {
+    }
+
+    private static long pick(long[] ids, Random random) {
+        return ids[random.nextInt(ids.length)];
+    }
+
+    /**
+     * Executors.newVirtualThreadPerTaskExecutor() появился в Java 21, а модуль собирается и под 17,
+     * поэтому метод ищется через reflection.
+     */
+    private static ExecutorService clientExecutor(int clients) {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            log.info("Клиенты работают на виртуальных потоках");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            log.info("Виртуальные потоки недоступны, клиенты работают на пуле из {} потоков", clients);
+            return Executors.newFixedThreadPool(clients);
+        }
+    }
+}
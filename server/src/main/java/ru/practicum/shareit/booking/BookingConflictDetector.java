@@ -0,0 +1,9 @@
+package ru.practicum.shareit.booking;
+
+public interface BookingConflictDetector {
+    String CROSSED_PERIODS_MESSAGE = "Имеются пересечения с периодами по существующим бронированиям";
+
+    Booking saveIfNoConflicts(Booking booking);
+
+    void release(Booking booking);
+}
@@ -1,9 +1,13 @@
 package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingOutcomeDto;
+import ru.practicum.shareit.booking.dto.BookingSliceDto;
 import ru.practicum.shareit.booking.dto.NewBookingDto;
+import ru.practicum.shareit.metrics.SqlBudget;
 
 import java.util.List;
 
@@ -13,36 +17,83 @@ import java.util.List;
 public class BookingController {
     private final BookingService bookingService;
     private static final String USER_HEADER_ID = "X-Sharer-User-Id";
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
 
+    @SqlBudget(4)
     @PostMapping
     public BookingDto addBooking(@RequestBody NewBookingDto newBookingDto, @RequestHeader(USER_HEADER_ID) Long bookerId) {
         return bookingService.add(newBookingDto, bookerId);
     }
 
+    @PostMapping("/batch")
+    public List<BookingOutcomeDto> addBookings(@RequestBody List<NewBookingDto> newBookings,
+                                               @RequestHeader(USER_HEADER_ID) Long bookerId) {
+        return bookingService.addAll(newBookings, bookerId);
+    }
+
+    @PatchMapping("/approve")
+    public List<BookingOutcomeDto> approveBookings(@RequestBody List<Long> bookingIds, @RequestParam boolean approved,
+                                                   @RequestHeader(USER_HEADER_ID) Long ownerId) {
+        return bookingService.approveBookings(bookingIds, approved, ownerId);
+    }
+
+    @SqlBudget(8)
     @PatchMapping("/{bookingId}")
     public BookingDto approveBooking(@PathVariable long bookingId, @RequestParam boolean approved,
                                      @RequestHeader(USER_HEADER_ID) Long ownerId) {
         return bookingService.approveBooking(bookingId, approved, ownerId);
     }
 
+    @SqlBudget(3)
     @GetMapping("/{bookingId}")
     public BookingDto getBookingInfo(@PathVariable long bookingId, @RequestHeader(USER_HEADER_ID) Long userId) {
         return bookingService.findByOwnerIdOrBookerId(bookingId, userId);
     }
 
+    @SqlBudget(3)
     @GetMapping
-    public List<BookingDto> getBookerBookings(@RequestHeader(USER_HEADER_ID) Long bookerId,
-                                              @RequestParam(required = false, defaultValue = "ALL") BookingState state,
-                                              @RequestParam(defaultValue = "0") int from,
-                                              @RequestParam(defaultValue = "10") int size) {
-        return bookingService.findAllByBookerIdAndBookingState(bookerId, state, from, size);
+    public ResponseEntity<List<BookingDto>> getBookerBookings(@RequestHeader(USER_HEADER_ID) Long bookerId,
+                                                              @RequestParam(required = false, defaultValue = "ALL") BookingState state,
+                                                              @RequestParam(defaultValue = "0") int from,
+                                                              @RequestParam(defaultValue = "10") int size,
+                                                              @RequestParam(required = false) BookingPaging paging,
+                                                              @RequestParam(required = false) String cursor) {
+        if (resolvePaging(paging, cursor) == BookingPaging.OFFSET) {
+            return ResponseEntity.ok(bookingService.findAllByBookerIdAndBookingState(bookerId, state, from, size));
+        }
+        return toResponse(bookingService.findAllByBookerIdAndBookingState(bookerId, state, cursor, size));
     }
 
+    @SqlBudget(3)
     @GetMapping("/owner")
-    public List<BookingDto> getOwnerBookings(@RequestHeader(USER_HEADER_ID) Long ownerId,
-                                             @RequestParam(required = false, defaultValue = "ALL") BookingState state,
-                                             @RequestParam(defaultValue = "0") int from,
-                                             @RequestParam(defaultValue = "10") int size) {
-        return bookingService.findAllByOwnerIdAndBookingState(ownerId, state, from, size);
+    public ResponseEntity<List<BookingDto>> getOwnerBookings(@RequestHeader(USER_HEADER_ID) Long ownerId,
+                                                             @RequestParam(required = false, defaultValue = "ALL") BookingState state,
+                                                             @RequestParam(defaultValue = "0") int from,
+                                                             @RequestParam(defaultValue = "10") int size,
+                                                             @RequestParam(required = false) BookingPaging paging,
+                                                             @RequestParam(required = false) String cursor) {
+        if (resolvePaging(paging, cursor) == BookingPaging.OFFSET) {
+            return ResponseEntity.ok(bookingService.findAllByOwnerIdAndBookingState(ownerId, state, from, size));
+        }
+        return toResponse(bookingService.findAllByOwnerIdAndBookingState(ownerId, state, cursor, size));
+    }
+
+    /**
+     * Режим выбирается параметром paging=OFFSET|CURSOR. Если paging не передан, режим курсора включается
+     * переданным параметром cursor (в том числе пустым — первая страница), иначе используются from/size.
+     */
+    private BookingPaging resolvePaging(BookingPaging paging, String cursor) {
+        if (paging != null) {
+            return paging;
+        }
+        return cursor == null ? BookingPaging.OFFSET : BookingPaging.CURSOR;
+    }
+
+    private ResponseEntity<List<BookingDto>> toResponse(BookingSliceDto slice) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (slice.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, slice.getNextCursor());
+        }
+        return response.body(slice.getBookings());
     }
 }
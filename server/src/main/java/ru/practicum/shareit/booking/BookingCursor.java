@@ -0,0 +1,55 @@
+package ru.practicum.shareit.booking;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+
+/**
+ * Позиция в списке бронирований, отсортированном по (start DESC, id DESC): следующая страница начинается
+ * строго после бронирования с этими start и id. Клиенту передаётся непрозрачной строкой.
+ */
+@Getter
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class BookingCursor {
+    public static final BookingCursor FIRST = new BookingCursor(LocalDateTime.of(9999, 12, 31, 23, 59), Long.MAX_VALUE);
+
+    LocalDateTime start;
+    long id;
+
+    /**
+     * База хранит время с точностью до микросекунд, а только что сохранённая сущность в сессии может держать
+     * наносекунды. Без усечения такой курсор оказался бы позже строки в базе, и она повторилась бы на следующей странице.
+     */
+    public static BookingCursor of(Booking booking) {
+        return new BookingCursor(booking.getStart().truncatedTo(ChronoUnit.MICROS), booking.getId());
+    }
+
+    public static BookingCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return FIRST;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = decoded.lastIndexOf('_');
+            return new BookingCursor(LocalDateTime.parse(decoded.substring(0, separator)),
+                    Long.parseLong(decoded.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new ValidationException("Некорректный курсор: " + token);
+        }
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString((start + "_" + id).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,184 @@
+package ru.practicum.shareit.booking;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Интервальное дерево (treap по дате начала) с максимальной датой окончания в каждом поддереве.
+ * Вставка, удаление и проверка пересечения с периодом выполняются за O(log n). Периоды полуоткрытые:
+ * бронирование, которое начинается в момент окончания другого, с ним не пересекается.
+ */
+class BookingIntervalTree {
+    private Node root;
+    private int size;
+
+    synchronized void insert(long bookingId, LocalDateTime start, LocalDateTime end) {
+        root = insert(root, new Node(bookingId, start, end, ThreadLocalRandom.current().nextInt()));
+        size++;
+    }
+
+    synchronized boolean remove(long bookingId, LocalDateTime start) {
+        int before = size;
+        root = remove(root, bookingId, start);
+        return size < before;
+    }
+
+    /**
+     * Есть ли период, пересекающийся с [start, end): node.start < end и start < node.end.
+     */
+    synchronized boolean crosses(LocalDateTime start, LocalDateTime end) {
+        Node node = root;
+        while (node != null) {
+            if (node.start.isBefore(end) && start.isBefore(node.end)) {
+                return true;
+            }
+            if (node.left != null && node.left.maxEnd.isAfter(start)) {
+                node = node.left;
+            } else if (node.start.isBefore(end)) {
+                node = node.right;
+            } else {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Удаляет периоды, закончившиеся не позже moment. Поддеревья, где все периоды закончились,
+     * отбрасываются целиком по maxEnd.
+     */
+    synchronized void removeEndedBefore(LocalDateTime moment) {
+        root = removeEndedBefore(root, moment);
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    private Node removeEndedBefore(Node node, LocalDateTime moment) {
+        if (node == null) {
+            return null;
+        }
+        if (!node.maxEnd.isAfter(moment)) {
+            size -= count(node);
+            return null;
+        }
+        node.left = removeEndedBefore(node.left, moment);
+        node.right = removeEndedBefore(node.right, moment);
+        if (!node.end.isAfter(moment)) {
+            size--;
+            return merge(node.left, node.right);
+        }
+        update(node);
+        return node;
+    }
+
+    private static int count(Node node) {
+        return node == null ? 0 : 1 + count(node.left) + count(node.right);
+    }
+
+    private Node insert(Node node, Node inserted) {
+        if (node == null) {
+            return inserted;
+        }
+        if (compare(inserted.start, inserted.id, node) < 0) {
+            node.left = insert(node.left, inserted);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, inserted);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        update(node);
+        return node;
+    }
+
+    private Node remove(Node node, long bookingId, LocalDateTime start) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(start, bookingId, node);
+        if (cmp < 0) {
+            node.left = remove(node.left, bookingId, start);
+        } else if (cmp > 0) {
+            node.right = remove(node.right, bookingId, start);
+        } else {
+            size--;
+            return merge(node.left, node.right);
+        }
+        update(node);
+        return node;
+    }
+
+    private Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+
+    private Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        update(node);
+        update(left);
+        return left;
+    }
+
+    private Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        update(node);
+        update(right);
+        return right;
+    }
+
+    private static int compare(LocalDateTime start, long bookingId, Node node) {
+        int cmp = start.compareTo(node.start);
+        return cmp != 0 ? cmp : Long.compare(bookingId, node.id);
+    }
+
+    private static void update(Node node) {
+        LocalDateTime maxEnd = node.end;
+        if (node.left != null && node.left.maxEnd.isAfter(maxEnd)) {
+            maxEnd = node.left.maxEnd;
+        }
+        if (node.right != null && node.right.maxEnd.isAfter(maxEnd)) {
+            maxEnd = node.right.maxEnd;
+        }
+        node.maxEnd = maxEnd;
+    }
+
+    private static final class Node {
+        final long id;
+        final LocalDateTime start;
+        final LocalDateTime end;
+        final int priority;
+        LocalDateTime maxEnd;
+        Node left;
+        Node right;
+
+        Node(long id, LocalDateTime start, LocalDateTime end, int priority) {
+            this.id = id;
+            this.start = start;
+            this.end = end;
+            this.priority = priority;
+            this.maxEnd = end;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.exception.BadRequestException;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.booking.conflict-detection", havingValue = "index", matchIfMissing = true)
+public class BookingOverlapIndex implements BookingConflictDetector {
+    private final BookingRepository bookingRepository;
+    private final Map<Long, BookingIntervalTree> trees = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void rebuild() {
+        trees.clear();
+        int count = 0;
+        for (Booking booking : bookingRepository.findAllByEndAfterAndStatusNot(LocalDateTime.now(), BookingStatus.REJECTED)) {
+            insert(booking);
+            count++;
+        }
+        log.info("Индекс периодов бронирования построен: {} бронирований по {} предметам", count, trees.size());
+    }
+
+    /**
+     * Закончившиеся бронирования ни с чем новым уже не пересекутся (при перестроении они и не загружаются),
+     * поэтому периодически выбрасываются, чтобы индекс не рос без ограничений.
+     */
+    @Scheduled(fixedDelayString = "${shareit.booking.index.prune-delay:3600000}")
+    public void removeEnded() {
+        LocalDateTime now = LocalDateTime.now();
+        for (Long itemId : trees.keySet()) {
+            trees.computeIfPresent(itemId, (id, tree) -> {
+                tree.removeEndedBefore(now);
+                return tree.size() == 0 ? null : tree;
+            });
+        }
+    }
+
+    @Override
+    public Booking saveIfNoConflicts(Booking booking) {
+        if (hasCrossedPeriods(booking.getItem().getId(), booking.getStart(), booking.getEnd())) {
+            throw new BadRequestException(CROSSED_PERIODS_MESSAGE);
+        }
+        Booking saved = bookingRepository.save(booking);
+        add(saved);
+        return saved;
+    }
+
+    @Override
+    public void release(Booking booking) {
+        remove(booking);
+    }
+
+    int itemCount() {
+        return trees.size();
+    }
+
+    public boolean hasCrossedPeriods(long itemId, LocalDateTime start, LocalDateTime end) {
+        BookingIntervalTree tree = trees.get(itemId);
+        return tree != null && tree.crosses(start, end);
+    }
+
+    public void add(Booking booking) {
+        insert(booking);
+        afterRollback(() -> delete(booking));
+    }
+
+    public void remove(Booking booking) {
+        if (delete(booking)) {
+            afterRollback(() -> insert(booking));
+        }
+    }
+
+    private void insert(Booking booking) {
+        trees.compute(booking.getItem().getId(), (id, tree) -> {
+            BookingIntervalTree itemTree = tree != null ? tree : new BookingIntervalTree();
+            itemTree.insert(booking.getId(), booking.getStart(), booking.getEnd());
+            return itemTree;
+        });
+    }
+
+    private boolean delete(Booking booking) {
+        BookingIntervalTree tree = trees.get(booking.getItem().getId());
+        return tree != null && tree.remove(booking.getId(), booking.getStart());
+    }
+
+    private void afterRollback(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    action.run();
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.booking;
+
+/**
+ * Способ постраничного чтения списков бронирований.
+ * OFFSET — страницы по from/size, CURSOR — по непрозрачному курсору с продолжением в заголовке X-Next-Cursor.
+ */
+public enum BookingPaging {
+    OFFSET,
+    CURSOR
+}
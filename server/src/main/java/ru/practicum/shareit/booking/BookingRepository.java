@@ -2,7 +2,7 @@ package ru.practicum.shareit.booking;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
@@ -21,53 +21,166 @@ public interface BookingRepository extends CrudRepository<Booking, Long> {
             "(br.id = ?2 or i.owner.id = ?2)")
     Booking findByOwnerIdOrBookerId(long bookingId, long userId);
 
-    List<Booking> findByItemIdAndEndAfter(long itemId, LocalDateTime now);
+    @Query("select b.item.id from Booking b where b.id = ?1")
+    Long findItemIdById(long bookingId);
 
-    List<Booking> findByItemIdAndBookerIdAndStatusNotAndEndBefore(long itemId, long bookerId, BookingStatus status, LocalDateTime now);
+    @Query("select distinct b.item.id from Booking b where b.id in ?1")
+    List<Long> findItemIdsByIdIn(Collection<Long> bookingIds);
 
-    @Query("select b " +
-            "from Booking b" +
-            " where b.item.id in ?1" +
-            " and b.status <> 'REJECTED'" +
-            " and(b.start = " +
-            "           (select max(b2.start) " +
-            "                   from Booking b2 " +
-            "                   where b2.item.id in ?1 and b2.start <= ?2)" +
-            " or b.start = " +
-            "           (select min(b3.start) " +
-            "           from Booking b3 " +
-            "           where b3.item.id in ?1 and b3.start > ?2))")
-    List<Booking> findLastAndNearFutureBookingsByItemIn(Collection<Long> itemIds, LocalDateTime now, Sort sort);
+    @EntityGraph(attributePaths = {"booker", "item"})
+    @Query("select b from Booking b where b.id in ?1")
+    List<Booking> findAllByIdIn(Collection<Long> bookingIds);
 
-    Page<Booking> findAllByBookerId(long bookerId, Pageable page); //ALL
+    List<Booking> findAllByEndAfterAndStatusNot(LocalDateTime now, BookingStatus status);
+
+    @Query("select distinct b.item.id from Booking b where b.status <> 'REJECTED'")
+    List<Long> findBookedItemIds();
 
     @Query("select b " +
             "from Booking b " +
-            "join b.booker as br " +
-            "where br.id = ?1 " +
-            "and b.start <= ?2" +
-            "and b.end >= ?2 ")
+            "where b.item.id = ?1 " +
+            "and b.booker.id = ?2 " +
+            "and b.status <> ?3 " +
+            "and b.end < ?4")
+    List<Booking> findByItemIdAndBookerIdAndStatusNotAndEndBefore(long itemId, long bookerId, BookingStatus status, LocalDateTime now);
+
+    /**
+     * Последнее начавшееся и ближайшее будущее бронирование каждого предмета за один проход:
+     * бронирования делятся по предмету и признаку "ещё не началось" и нумеруются от ближайшего к now.
+     */
+    @Query(value = "SELECT id, booker_id, item_id, start_date, end_date, status " +
+            "FROM (SELECT b.*, ROW_NUMBER() OVER (" +
+            "          PARTITION BY b.item_id, b.start_date > ?2 " +
+            "          ORDER BY CASE WHEN b.start_date > ?2 THEN b.start_date END, b.start_date DESC) AS rn " +
+            "      FROM bookings b " +
+            "      WHERE b.item_id IN ?1 " +
+            "      AND b.status <> 'REJECTED') ranked " +
+            "WHERE rn = 1", nativeQuery = true)
+    List<Booking> findLastAndNextBookingsByItemIn(Collection<Long> itemIds, LocalDateTime now);
+
+    @EntityGraph(attributePaths = {"booker", "item"})
+    @Query("select b from Booking b where b.booker.id = ?1")
+    Page<Booking> findAllByBookerId(long bookerId, Pageable page); //ALL
+
+    @EntityGraph(attributePaths = {"booker", "item"})
+    @Query("select b from Booking b where b.booker.id = ?1 and b.start <= ?2 and b.end >= ?2")
     Page<Booking> findAllBookerCurrentBookings(long bookerId, LocalDateTime now, Pageable page); //Current
 
+    @EntityGraph(attributePaths = {"booker", "item"})
+    @Query("select b from Booking b where b.booker.id = ?1 and b.end < ?2")
     Page<Booking> findAllByBookerIdAndEndBefore(long bookerId, LocalDateTime now, Pageable page); //Past
 
+    @EntityGraph(attributePaths = {"booker", "item"})
+    @Query("select b from Booking b where b.booker.id = ?1 and b.start > ?2")
     Page<Booking> findAllByBookerIdAndStartAfter(long bookerId, LocalDateTime now, Pageable page); //Future
 
+    @EntityGraph(attributePaths = {"booker", "item"})
+    @Query("select b from Booking b where b.booker.id = ?1 and b.status = ?2")
     Page<Booking> findAllByBookerIdAndStatus(long bookerId, BookingStatus status, Pageable page); //Status
 
+    @Query(value = "select b from Booking b join fetch b.item i join fetch b.booker " +
+            "where i.owner.id = ?1",
+            countQuery = "select count(b) from Booking b join b.item i where i.owner.id = ?1")
     Page<Booking> findAllByItemOwnerId(long ownerId, Pageable page);
 
-    @Query("select b " +
-            "from Booking b " +
-            "join b.item as i " +
-            "where i.owner.id = ?1 " +
-            "and b.start <= ?2" +
-            "and b.end >= ?2 ")
+    @Query(value = "select b from Booking b join fetch b.item i join fetch b.booker " +
+            "where i.owner.id = ?1 and b.start <= ?2 and b.end >= ?2",
+            countQuery = "select count(b) from Booking b join b.item i where i.owner.id = ?1 and b.start <= ?2 and b.end >= ?2")
     Page<Booking> findAllOwnerCurrentBookings(long bookerId, LocalDateTime now, Pageable page); //Current
 
+    @Query(value = "select b from Booking b join fetch b.item i join fetch b.booker " +
+            "where i.owner.id = ?1 and b.end < ?2",
+            countQuery = "select count(b) from Booking b join b.item i where i.owner.id = ?1 and b.end < ?2")
     Page<Booking> findAllByItemOwnerIdAndEndBefore(long bookerId, LocalDateTime now, Pageable page); //Past
 
+    @Query(value = "select b from Booking b join fetch b.item i join fetch b.booker " +
+            "where i.owner.id = ?1 and b.start > ?2",
+            countQuery = "select count(b) from Booking b join b.item i where i.owner.id = ?1 and b.start > ?2")
     Page<Booking> findAllByItemOwnerIdAndStartAfter(long bookerId, LocalDateTime now, Pageable page); //Future
 
+    @Query(value = "select b from Booking b join fetch b.item i join fetch b.booker " +
+            "where i.owner.id = ?1 and b.status = ?2",
+            countQuery = "select count(b) from Booking b join b.item i where i.owner.id = ?1 and b.status = ?2")
     Page<Booking> findAllByItemOwnerIdAndStatus(long bookerId, BookingStatus status, Pageable page); //Future
+
+    @EntityGraph(attributePaths = {"booker", "item"})
+    @Query("select b from Booking b " +
+            "where b.booker.id = ?1 " +
+            "and (b.start < ?2 or b.start = ?2 and b.id < ?3) " +
+            "order by b.start desc, b.id desc")
+    List<Booking> findSeekByBookerId(long bookerId, LocalDateTime cursorStart, long cursorId, Pageable page);
+
+    @EntityGraph(attributePaths = {"booker", "item"})
+    @Query("select b from Booking b " +
+            "where b.booker.id = ?1 " +
+            "and b.start <= ?4 and b.end >= ?4 " +
+            "and (b.start < ?2 or b.start = ?2 and b.id < ?3) " +
+            "order by b.start desc, b.id desc")
+    List<Booking> findSeekBookerCurrentBookings(long bookerId, LocalDateTime cursorStart, long cursorId,
+                                                LocalDateTime now, Pageable page);
+
+    @EntityGraph(attributePaths = {"booker", "item"})
+    @Query("select b from Booking b " +
+            "where b.booker.id = ?1 " +
+            "and b.end < ?4 " +
+            "and (b.start < ?2 or b.start = ?2 and b.id < ?3) " +
+            "order by b.start desc, b.id desc")
+    List<Booking> findSeekByBookerIdAndEndBefore(long bookerId, LocalDateTime cursorStart, long cursorId,
+                                                 LocalDateTime now, Pageable page);
+
+    @EntityGraph(attributePaths = {"booker", "item"})
+    @Query("select b from Booking b " +
+            "where b.booker.id = ?1 " +
+            "and b.start > ?4 " +
+            "and (b.start < ?2 or b.start = ?2 and b.id < ?3) " +
+            "order by b.start desc, b.id desc")
+    List<Booking> findSeekByBookerIdAndStartAfter(long bookerId, LocalDateTime cursorStart, long cursorId,
+                                                  LocalDateTime now, Pageable page);
+
+    @EntityGraph(attributePaths = {"booker", "item"})
+    @Query("select b from Booking b " +
+            "where b.booker.id = ?1 " +
+            "and b.status = ?4 " +
+            "and (b.start < ?2 or b.start = ?2 and b.id < ?3) " +
+            "order by b.start desc, b.id desc")
+    List<Booking> findSeekByBookerIdAndStatus(long bookerId, LocalDateTime cursorStart, long cursorId,
+                                              BookingStatus status, Pageable page);
+
+    @Query("select b from Booking b join fetch b.item i join fetch b.booker " +
+            "where i.owner.id = ?1 " +
+            "and (b.start < ?2 or b.start = ?2 and b.id < ?3) " +
+            "order by b.start desc, b.id desc")
+    List<Booking> findSeekByItemOwnerId(long ownerId, LocalDateTime cursorStart, long cursorId, Pageable page);
+
+    @Query("select b from Booking b join fetch b.item i join fetch b.booker " +
+            "where i.owner.id = ?1 " +
+            "and b.start <= ?4 and b.end >= ?4 " +
+            "and (b.start < ?2 or b.start = ?2 and b.id < ?3) " +
+            "order by b.start desc, b.id desc")
+    List<Booking> findSeekOwnerCurrentBookings(long ownerId, LocalDateTime cursorStart, long cursorId,
+                                               LocalDateTime now, Pageable page);
+
+    @Query("select b from Booking b join fetch b.item i join fetch b.booker " +
+            "where i.owner.id = ?1 " +
+            "and b.end < ?4 " +
+            "and (b.start < ?2 or b.start = ?2 and b.id < ?3) " +
+            "order by b.start desc, b.id desc")
+    List<Booking> findSeekByItemOwnerIdAndEndBefore(long ownerId, LocalDateTime cursorStart, long cursorId,
+                                                    LocalDateTime now, Pageable page);
+
+    @Query("select b from Booking b join fetch b.item i join fetch b.booker " +
+            "where i.owner.id = ?1 " +
+            "and b.start > ?4 " +
+            "and (b.start < ?2 or b.start = ?2 and b.id < ?3) " +
+            "order by b.start desc, b.id desc")
+    List<Booking> findSeekByItemOwnerIdAndStartAfter(long ownerId, LocalDateTime cursorStart, long cursorId,
+                                                     LocalDateTime now, Pageable page);
+
+    @Query("select b from Booking b join fetch b.item i join fetch b.booker " +
+            "where i.owner.id = ?1 " +
+            "and b.status = ?4 " +
+            "and (b.start < ?2 or b.start = ?2 and b.id < ?3) " +
+            "order by b.start desc, b.id desc")
+    List<Booking> findSeekByItemOwnerIdAndStatus(long ownerId, LocalDateTime cursorStart, long cursorId,
+                                                 BookingStatus status, Pageable page);
 }
@@ -1,6 +1,8 @@
 package ru.practicum.shareit.booking;
 
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingOutcomeDto;
+import ru.practicum.shareit.booking.dto.BookingSliceDto;
 import ru.practicum.shareit.booking.dto.NewBookingDto;
 
 import java.util.List;
@@ -8,11 +10,19 @@ import java.util.List;
 public interface BookingService {
     BookingDto add(NewBookingDto newBookingDto, long bookerId);
 
+    List<BookingOutcomeDto> addAll(List<NewBookingDto> newBookings, long bookerId);
+
     BookingDto approveBooking(long bookingId, boolean isApproved, long ownerId);
 
+    List<BookingOutcomeDto> approveBookings(List<Long> bookingIds, boolean isApproved, long ownerId);
+
     BookingDto findByOwnerIdOrBookerId(long bookingId, long userId);
 
     List<BookingDto> findAllByBookerIdAndBookingState(long bookerId, BookingState state, int from, int size);
 
     List<BookingDto> findAllByOwnerIdAndBookingState(long ownerId, BookingState state, int from, int size);
+
+    BookingSliceDto findAllByBookerIdAndBookingState(long bookerId, BookingState state, String cursor, int size);
+
+    BookingSliceDto findAllByOwnerIdAndBookingState(long ownerId, BookingState state, String cursor, int size);
 }
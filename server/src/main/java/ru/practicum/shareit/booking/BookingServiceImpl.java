@@ -3,23 +3,27 @@ package ru.practicum.shareit.booking;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingOutcomeDto;
+import ru.practicum.shareit.booking.dto.BookingSliceDto;
 import ru.practicum.shareit.booking.dto.NewBookingDto;
+import ru.practicum.shareit.booking.lock.ItemLockManager;
 import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.pointers.ItemBookingPointersService;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Objects;
-import java.util.Optional;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -29,6 +33,9 @@ public class BookingServiceImpl implements BookingService {
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final BookingConflictDetector conflictDetector;
+    private final ItemLockManager lockManager;
+    private final ItemBookingPointersService pointersService;
 
     @Override
     @Transactional
@@ -38,32 +45,105 @@ public class BookingServiceImpl implements BookingService {
         if (item == null) {
             throw new NotFoundException(newBookingDto.getItemId());
         }
-        if (Objects.equals(booker.getId(), item.getOwner().getId())) {
-            throw new NotFoundException();
-        }
-        if (!item.getAvailable()) {
-            throw new BadRequestException("Предмет недоступен для бронирования");
+        validateBookable(item, booker);
+        lockManager.lockUntilTransactionEnds(item.getId());
+        Booking newBooking = conflictDetector.saveIfNoConflicts(BookingMapper.mapToBooking(newBookingDto, booker, item));
+        pointersService.onBookingAdded(newBooking);
+        return BookingMapper.mapToBookingDto(newBooking);
+    }
+
+    /**
+     * Все предметы пакета читаются одним запросом и блокируются заранее в порядке id, чтобы встречные пакеты
+     * не взаимоблокировались. Ошибка одного бронирования не отменяет остальные.
+     */
+    @Override
+    @Transactional
+    public List<BookingOutcomeDto> addAll(List<NewBookingDto> newBookings, long bookerId) {
+        User booker = doesUserExist(bookerId);
+        Set<Long> itemIds = newBookings.stream()
+                .map(NewBookingDto::getItemId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(TreeSet::new));
+        Map<Long, Item> items = new HashMap<>();
+        itemRepository.findAllById(itemIds).forEach(item -> items.put(item.getId(), item));
+        items.keySet().stream().sorted().forEach(lockManager::lockUntilTransactionEnds);
+
+        List<BookingOutcomeDto> outcomes = new ArrayList<>();
+        for (NewBookingDto newBookingDto : newBookings) {
+            try {
+                Item item = items.get(newBookingDto.getItemId());
+                if (item == null) {
+                    throw new NotFoundException(newBookingDto.getItemId());
+                }
+                validateBookable(item, booker);
+                Booking newBooking = conflictDetector.saveIfNoConflicts(BookingMapper.mapToBooking(newBookingDto, booker, item));
+                pointersService.onBookingAdded(newBooking);
+                outcomes.add(success(newBooking));
+            } catch (NotFoundException | BadRequestException | ValidationException e) {
+                outcomes.add(failure(null, e));
+            }
         }
-        checkCrossedPeriods(newBookingDto);
-        Booking newBooking = BookingMapper.mapToBooking(newBookingDto, booker, item);
-        return BookingMapper.mapToBookingDto(bookingRepository.save(newBooking));
+        return outcomes;
     }
 
     @Override
     @Transactional
     public BookingDto approveBooking(long bookingId, boolean isApproved, long ownerId) {
         BookingStatus status = isApproved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
-        Booking booking = bookingRepository.findByOwnerIdOrBookerId(bookingId, ownerId);
-        if (booking == null) {
+        Long itemId = bookingRepository.findItemIdById(bookingId);
+        if (itemId == null) {
             throw new BadRequestException("Бронирование не найдено");
-        } else if (booking.getBooker().getId() == ownerId) {
-            throw new NotFoundException(bookingId);
-        } else if (!booking.getStatus().equals(BookingStatus.WAITING)) {
-            throw new ValidationException("Невозможно сменить статус");
         }
+        lockManager.lockUntilTransactionEnds(itemId);
+        Booking booking = bookingRepository.findByOwnerIdOrBookerId(bookingId, ownerId);
+        validateApproval(booking, bookingId, ownerId);
         booking.setStatus(status);
+        if (status == BookingStatus.REJECTED) {
+            conflictDetector.release(booking);
+        }
 
-        return BookingMapper.mapToBookingDto(bookingRepository.save(booking));
+        Booking saved = bookingRepository.save(booking);
+        pointersService.onBookingStatusChanged(saved);
+        return BookingMapper.mapToBookingDto(saved);
+    }
+
+    /**
+     * Бронирования пакета читаются одним запросом, новые статусы уходят на сервер одним JDBC-пакетом
+     * при сбросе контекста, а указатели предметов обновляются уже после него.
+     */
+    @Override
+    @Transactional
+    public List<BookingOutcomeDto> approveBookings(List<Long> bookingIds, boolean isApproved, long ownerId) {
+        BookingStatus status = isApproved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        bookingRepository.findItemIdsByIdIn(bookingIds).stream()
+                .sorted()
+                .forEach(lockManager::lockUntilTransactionEnds);
+        Map<Long, Booking> bookings = bookingRepository.findAllByIdIn(bookingIds).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+
+        List<BookingOutcomeDto> outcomes = new ArrayList<>();
+        List<Booking> changed = new ArrayList<>();
+        for (Long bookingId : bookingIds) {
+            Booking booking = bookings.get(bookingId);
+            if (booking != null && booking.getBooker().getId() != ownerId
+                    && booking.getItem().getOwner().getId() != ownerId) {
+                booking = null;
+            }
+            try {
+                validateApproval(booking, bookingId, ownerId);
+                booking.setStatus(status);
+                if (status == BookingStatus.REJECTED) {
+                    conflictDetector.release(booking);
+                }
+                changed.add(booking);
+                outcomes.add(success(booking));
+            } catch (NotFoundException | BadRequestException | ValidationException e) {
+                outcomes.add(failure(bookingId, e));
+            }
+        }
+        bookingRepository.saveAll(changed);
+        changed.forEach(pointersService::onBookingStatusChanged);
+        return outcomes;
     }
 
     @Override
@@ -141,24 +221,122 @@ public class BookingServiceImpl implements BookingService {
         return bookingsDto;
     }
 
-    private void validateBookingPeriod(NewBookingDto newBookingDto) {
-        LocalDateTime start = newBookingDto.getStart();
-        LocalDateTime end = newBookingDto.getEnd();
-        if (!start.isBefore(end)) {
-            throw new ValidationException("Дата начала не может быть равна или позже даты конца");
+    @Override
+    public BookingSliceDto findAllByBookerIdAndBookingState(long bookerId, BookingState state, String cursor, int size) {
+        List<Booking> bookings = new ArrayList<>();
+        doesUserExist(bookerId);
+        BookingCursor after = BookingCursor.decode(cursor);
+        PageRequest page = PageRequest.ofSize(size);
+        switch (state) {
+            case ALL:
+                bookings = bookingRepository.findSeekByBookerId(bookerId, after.getStart(), after.getId(), page);
+                break;
+            case CURRENT:
+                bookings = bookingRepository.findSeekBookerCurrentBookings(bookerId, after.getStart(), after.getId(),
+                        LocalDateTime.now(), page);
+                break;
+            case PAST:
+                bookings = bookingRepository.findSeekByBookerIdAndEndBefore(bookerId, after.getStart(), after.getId(),
+                        LocalDateTime.now(), page);
+                break;
+            case FUTURE:
+                bookings = bookingRepository.findSeekByBookerIdAndStartAfter(bookerId, after.getStart(), after.getId(),
+                        LocalDateTime.now(), page);
+                break;
+            case WAITING:
+                bookings = bookingRepository.findSeekByBookerIdAndStatus(bookerId, after.getStart(), after.getId(),
+                        BookingStatus.WAITING, page);
+                break;
+            case REJECTED:
+                bookings = bookingRepository.findSeekByBookerIdAndStatus(bookerId, after.getStart(), after.getId(),
+                        BookingStatus.REJECTED, page);
+                break;
         }
+        return toSlice(bookings, size);
     }
 
-    private void checkCrossedPeriods(NewBookingDto newBookingDto) {
+    @Override
+    public BookingSliceDto findAllByOwnerIdAndBookingState(long ownerId, BookingState state, String cursor, int size) {
+        List<Booking> bookings = new ArrayList<>();
+        doesUserExist(ownerId);
+        BookingCursor after = BookingCursor.decode(cursor);
+        PageRequest page = PageRequest.ofSize(size);
+        switch (state) {
+            case ALL:
+                bookings = bookingRepository.findSeekByItemOwnerId(ownerId, after.getStart(), after.getId(), page);
+                break;
+            case CURRENT:
+                bookings = bookingRepository.findSeekOwnerCurrentBookings(ownerId, after.getStart(), after.getId(),
+                        LocalDateTime.now(), page);
+                break;
+            case PAST:
+                bookings = bookingRepository.findSeekByItemOwnerIdAndEndBefore(ownerId, after.getStart(), after.getId(),
+                        LocalDateTime.now(), page);
+                break;
+            case FUTURE:
+                bookings = bookingRepository.findSeekByItemOwnerIdAndStartAfter(ownerId, after.getStart(), after.getId(),
+                        LocalDateTime.now(), page);
+                break;
+            case WAITING:
+                bookings = bookingRepository.findSeekByItemOwnerIdAndStatus(ownerId, after.getStart(), after.getId(),
+                        BookingStatus.WAITING, page);
+                break;
+            case REJECTED:
+                bookings = bookingRepository.findSeekByItemOwnerIdAndStatus(ownerId, after.getStart(), after.getId(),
+                        BookingStatus.REJECTED, page);
+                break;
+        }
+        return toSlice(bookings, size);
+    }
+
+    private BookingSliceDto toSlice(List<Booking> bookings, int size) {
+        String nextCursor = bookings.size() == size
+                ? BookingCursor.of(bookings.get(bookings.size() - 1)).encode()
+                : null;
+        return new BookingSliceDto(BookingMapper.mapToBookingDto(bookings), nextCursor);
+    }
+
+    private static void validateBookable(Item item, User booker) {
+        if (Objects.equals(booker.getId(), item.getOwner().getId())) {
+            throw new NotFoundException();
+        }
+        if (!item.getAvailable()) {
+            throw new BadRequestException("Предмет недоступен для бронирования");
+        }
+    }
+
+    private static void validateApproval(Booking booking, long bookingId, long ownerId) {
+        if (booking == null) {
+            throw new BadRequestException("Бронирование не найдено");
+        } else if (booking.getBooker().getId() == ownerId) {
+            throw new NotFoundException(bookingId);
+        } else if (!booking.getStatus().equals(BookingStatus.WAITING)) {
+            throw new ValidationException("Невозможно сменить статус");
+        }
+    }
+
+    private static BookingOutcomeDto success(Booking booking) {
+        return BookingOutcomeDto.builder()
+                .bookingId(booking.getId())
+                .status(HttpStatus.OK.value())
+                .booking(BookingMapper.mapToBookingDto(booking))
+                .build();
+    }
+
+    private static BookingOutcomeDto failure(Long bookingId, RuntimeException e) {
+        HttpStatus status = e instanceof NotFoundException ? HttpStatus.NOT_FOUND : HttpStatus.BAD_REQUEST;
+        return BookingOutcomeDto.builder()
+                .bookingId(bookingId)
+                .status(status.value())
+                .error(e.getMessage())
+                .build();
+    }
+
+    private void validateBookingPeriod(NewBookingDto newBookingDto) {
         LocalDateTime start = newBookingDto.getStart();
         LocalDateTime end = newBookingDto.getEnd();
-        List<Booking> bookings = bookingRepository.findByItemIdAndEndAfter(newBookingDto.getItemId(), LocalDateTime.now());
-        boolean haveCrossPeriods = bookings.stream()
-                .anyMatch(b
-                        -> start.isAfter(b.getStart()) && start.isBefore(b.getEnd())
-                        || end.isAfter(b.getStart()) && end.isBefore(b.getEnd()));
-        if (haveCrossPeriods) {
-            throw new BadRequestException("Имеются пересечения с периодами по существующим бронированиям");
+        if (!start.isBefore(end)) {
+            throw new ValidationException("Дата начала не может быть равна или позже даты конца");
         }
     }
 
@@ -0,0 +1,93 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.exception.BadRequestException;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Timestamp;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Проверка пересечений силами базы данных: вставка с условием NOT EXISTS выполняется одним запросом,
+ * а в PostgreSQL её дополнительно страхует exclusion-ограничение ex_bookings_item_period (schema-postgresql.sql).
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.booking.conflict-detection", havingValue = "database")
+public class ExclusionConstraintConflictDetector implements BookingConflictDetector {
+    private static final String INSERT_IF_NO_OVERLAP = "INSERT INTO bookings (booker_id, item_id, start_date, end_date, status) " +
+            "SELECT ?, ?, ?, ?, ? " +
+            "WHERE NOT EXISTS (SELECT 1 FROM bookings " +
+            "                  WHERE item_id = ? " +
+            "                  AND status <> 'REJECTED' " +
+            "                  AND start_date < ? " +
+            "                  AND end_date > ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+
+    /**
+     * Вставка выполняется внутри точки сохранения. В PostgreSQL нарушение ex_bookings_item_period помечает всю
+     * транзакцию как прерванную, и без отката к точке сохранения пакетное добавление не смогло бы продолжить
+     * следующие бронирования. Границы периода усекаются до микросекунд, с которыми их хранит база: иначе
+     * округление при записи сдвигает конец бронирования, и соседний период, начинающийся ровно в этот момент,
+     * ложно считается пересечением.
+     */
+    @Override
+    public Booking saveIfNoConflicts(Booking booking) {
+        booking.setStart(booking.getStart().truncatedTo(ChronoUnit.MICROS));
+        booking.setEnd(booking.getEnd().truncatedTo(ChronoUnit.MICROS));
+        Timestamp start = Timestamp.valueOf(booking.getStart());
+        Timestamp end = Timestamp.valueOf(booking.getEnd());
+        long itemId = booking.getItem().getId();
+        entityManager.flush();
+        Long id;
+        try {
+            id = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+                Savepoint savepoint = connection.setSavepoint();
+                try (PreparedStatement ps = connection.prepareStatement(INSERT_IF_NO_OVERLAP, new String[]{"id"})) {
+                    ps.setLong(1, booking.getBooker().getId());
+                    ps.setLong(2, itemId);
+                    ps.setTimestamp(3, start);
+                    ps.setTimestamp(4, end);
+                    ps.setString(5, booking.getStatus().name());
+                    ps.setLong(6, itemId);
+                    ps.setTimestamp(7, end);
+                    ps.setTimestamp(8, start);
+                    Long generatedId = null;
+                    if (ps.executeUpdate() > 0) {
+                        try (ResultSet keys = ps.getGeneratedKeys()) {
+                            keys.next();
+                            generatedId = keys.getLong(1);
+                        }
+                    }
+                    connection.releaseSavepoint(savepoint);
+                    return generatedId;
+                } catch (SQLException e) {
+                    connection.rollback(savepoint);
+                    throw e;
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            throw new BadRequestException(CROSSED_PERIODS_MESSAGE);
+        }
+        if (id == null) {
+            throw new BadRequestException(CROSSED_PERIODS_MESSAGE);
+        }
+        booking.setId(id);
+        return booking;
+    }
+
+    @Override
+    public void release(Booking booking) {
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Результат обработки одного бронирования из пакета. status повторяет код ответа одиночного запроса,
+ * при ошибке booking пуст, а в error лежит её текст.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BookingOutcomeDto {
+    Long bookingId;
+    int status;
+    String error;
+    BookingDto booking;
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.booking.lock;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Транзакционные advisory-блокировки PostgreSQL: работают между несколькими экземплярами shareit-server
+ * и освобождаются самой базой при фиксации или откате транзакции.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.booking.lock.backend", havingValue = "advisory")
+public class AdvisoryItemLockManager implements ItemLockManager {
+    private final JdbcTemplate jdbcTemplate;
+    private final Timer waitTimer;
+
+    public AdvisoryItemLockManager(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.waitTimer = Timer.builder("shareit.booking.lock.wait")
+                .tag("backend", "advisory")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void lockUntilTransactionEnds(long itemId) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Блокировка предмета возможна только внутри транзакции");
+        }
+        waitTimer.record(() -> jdbcTemplate.query("SELECT pg_advisory_xact_lock(?)", rs -> null, itemId));
+    }
+}
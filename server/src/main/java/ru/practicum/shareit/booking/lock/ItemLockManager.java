@@ -0,0 +1,8 @@
+package ru.practicum.shareit.booking.lock;
+
+public interface ItemLockManager {
+    /**
+     * Захватывает блокировку предмета и удерживает её до завершения текущей транзакции.
+     */
+    void lockUntilTransactionEnds(long itemId);
+}
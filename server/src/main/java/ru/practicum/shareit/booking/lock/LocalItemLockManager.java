@@ -0,0 +1,89 @@
+package ru.practicum.shareit.booking.lock;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Блокировки в памяти процесса: у каждого предмета своя блокировка, поэтому бронирования разных предметов
+ * не конкурируют. Запись удаляется, когда блокировку больше никто не держит и не ждёт.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "shareit.booking.lock.backend", havingValue = "local", matchIfMissing = true)
+public class LocalItemLockManager implements ItemLockManager {
+    private static final Duration HOT_ITEM_WAIT = Duration.ofMillis(100);
+
+    private final ConcurrentHashMap<Long, LockEntry> locks = new ConcurrentHashMap<>();
+    private final Timer waitTimer;
+    private final DistributionSummary queueDepth;
+
+    public LocalItemLockManager(MeterRegistry meterRegistry) {
+        this.waitTimer = Timer.builder("shareit.booking.lock.wait")
+                .tag("backend", "local")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.queueDepth = DistributionSummary.builder("shareit.booking.lock.queue")
+                .description("Число потоков в очереди за блокировкой предмета в момент захвата")
+                .register(meterRegistry);
+        Gauge.builder("shareit.booking.lock.items", locks, ConcurrentHashMap::size)
+                .register(meterRegistry);
+        Gauge.builder("shareit.booking.lock.waiting", this, LocalItemLockManager::waitingThreads)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void lockUntilTransactionEnds(long itemId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Блокировка предмета возможна только внутри транзакции");
+        }
+        LockEntry entry = locks.compute(itemId, (id, existing) -> {
+            LockEntry lockEntry = existing != null ? existing : new LockEntry();
+            lockEntry.users++;
+            return lockEntry;
+        });
+        int queued = entry.lock.getQueueLength();
+        queueDepth.record(queued);
+        long started = System.nanoTime();
+        entry.lock.lock();
+        long waited = System.nanoTime() - started;
+        waitTimer.record(waited, TimeUnit.NANOSECONDS);
+        if (waited > HOT_ITEM_WAIT.toNanos()) {
+            log.warn("Ожидание блокировки предмета {} заняло {} мс, в очереди было {}",
+                    itemId, TimeUnit.NANOSECONDS.toMillis(waited), queued);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                unlock(itemId, entry);
+            }
+        });
+    }
+
+    private void unlock(long itemId, LockEntry entry) {
+        entry.lock.unlock();
+        locks.computeIfPresent(itemId, (id, existing) -> --existing.users == 0 ? null : existing);
+    }
+
+    private double waitingThreads() {
+        return locks.values().stream()
+                .mapToInt(entry -> entry.lock.getQueueLength())
+                .sum();
+    }
+
+    private static final class LockEntry {
+        final ReentrantLock lock = new ReentrantLock();
+        int users;
+    }
+}
@@ -2,9 +2,13 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.item.comments.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
+import ru.practicum.shareit.item.dto.ItemWithETag;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.metrics.SqlBudget;
 
 import java.util.List;
 
@@ -15,11 +19,18 @@ public class ItemController {
     private final ItemService itemService;
     private static final String USER_HEADER_ID = "X-Sharer-User-Id";
 
+    @SqlBudget(3)
     @GetMapping("/{itemId}")
-    public ItemDto getItemById(@PathVariable Long itemId, @RequestHeader(USER_HEADER_ID) Long userId) {
-        return itemService.getItemById(itemId, userId);
+    public ItemDto getItemById(@PathVariable Long itemId, @RequestHeader(USER_HEADER_ID) Long userId,
+                               WebRequest request) {
+        ItemWithETag item = itemService.getItemWithETag(itemId, userId);
+        if (request.checkNotModified(item.getETag())) {
+            return null;
+        }
+        return item.getItem();
     }
 
+    @SqlBudget(3)
     @GetMapping
     public List<ItemDto> findItemsByOwnerId(@RequestHeader(USER_HEADER_ID) Long userId,
                                             @RequestParam(defaultValue = "0") int from,
@@ -27,6 +38,7 @@ public class ItemController {
         return itemService.findItemsByOwnerId(userId, from, size);
     }
 
+    @SqlBudget(2)
     @GetMapping("/search")
     public List<ItemDto> searchItemsByPhrase(@RequestParam("text") String searchPhrase,
                                              @RequestParam(defaultValue = "0") int from,
@@ -34,17 +46,27 @@ public class ItemController {
         return itemService.searchItemsByPhrase(searchPhrase, from, size);
     }
 
+    @SqlBudget(1)
+    @GetMapping("/suggest")
+    public List<ItemSuggestionDto> suggestItemNames(@RequestParam String prefix,
+                                                    @RequestParam(defaultValue = "10") int size) {
+        return itemService.suggestItemNames(prefix, size);
+    }
+
+    @SqlBudget(2)
     @PostMapping
     public ItemDto addItem(@RequestHeader(USER_HEADER_ID) Long userId, @RequestBody ItemDto itemDto) {
         return itemService.addItem(userId, itemDto);
     }
 
+    @SqlBudget(4)
     @PostMapping("/{itemId}/comment")
     public CommentDto addComment(@RequestHeader(USER_HEADER_ID) Long userId, @RequestBody CommentDto commentDto,
                                  @PathVariable long itemId) {
         return itemService.addComment(itemId, userId, commentDto);
     }
 
+    @SqlBudget(3)
     @PatchMapping("/{itemId}")
     public ItemDto updateItem(@PathVariable Long itemId, @RequestHeader(USER_HEADER_ID) Long userId, @RequestBody ItemDto itemDto) {
         return itemService.updateItem(itemId, userId, itemDto);
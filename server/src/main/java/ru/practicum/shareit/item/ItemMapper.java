@@ -1,7 +1,5 @@
 package ru.practicum.shareit.item;
 
-import ru.practicum.shareit.booking.Booking;
-import ru.practicum.shareit.booking.BookingMapper;
 import ru.practicum.shareit.booking.dto.ShortBookingDto;
 import ru.practicum.shareit.item.comments.Comment;
 import ru.practicum.shareit.item.comments.CommentDto;
@@ -9,10 +7,11 @@ import ru.practicum.shareit.item.comments.CommentMapper;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoWithBookings;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.pointers.BookingSnapshot;
+import ru.practicum.shareit.item.pointers.ItemBookingPointers;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
-import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -30,33 +29,40 @@ public class ItemMapper {
                 .build();
     }
 
-    public static ItemDto mapToItemDtoWithBookings(Item item, List<Booking> bookings, List<CommentDto> comments) {
+    public static ItemDto mapToItemDtoWithBookings(Item item, ItemBookingPointers pointers, List<CommentDto> comments) {
         ShortBookingDto lastBooking = null;
         ShortBookingDto nextBooking = null;
-        if (bookings.size() > 1) {
-            lastBooking = BookingMapper.mapToShortBookingDto(bookings.get(0));
-            nextBooking = BookingMapper.mapToShortBookingDto(bookings.get(1));
-        } else if (bookings.size() == 1) {
-            LocalDateTime now = LocalDateTime.now();
-            if (bookings.get(0).getStart().isAfter(now)) {
-                nextBooking = BookingMapper.mapToShortBookingDto(bookings.get(0));
-            } else {
-                lastBooking = BookingMapper.mapToShortBookingDto(bookings.get(0));
-            }
+        if (pointers != null) {
+            lastBooking = mapToShortBookingDto(pointers.getLast(), item);
+            nextBooking = mapToShortBookingDto(pointers.getNext(), item);
         }
         Long itemRequestId = item.getRequest() != null ? item.getRequest().getId() : null;
         return new ItemDtoWithBookings(item.getId(), item.getOwner().getId(), itemRequestId,
                 item.getName(), item.getDescription(), item.getAvailable(), lastBooking, nextBooking, comments);
     }
 
-    public static List<ItemDto> mapToItemDtoWithBookings(List<Item> items, Map<Long,
-            List<Booking>> bookings, Map<Long, List<Comment>> comments) {
+    public static List<ItemDto> mapToItemDtoWithBookings(List<Item> items, Map<Long, ItemBookingPointers> pointers,
+                                                         Map<Long, List<Comment>> comments) {
         return items.stream()
-                .map(i -> ItemMapper.mapToItemDtoWithBookings(i, bookings.getOrDefault(i.getId(), Collections.emptyList()),
+                .map(i -> ItemMapper.mapToItemDtoWithBookings(i, pointers.get(i.getId()),
                         CommentMapper.mapToCommentDto(comments.getOrDefault(i.getId(), Collections.emptyList()))))
                 .collect(Collectors.toList());
     }
 
+    private static ShortBookingDto mapToShortBookingDto(BookingSnapshot booking, Item item) {
+        if (booking == null) {
+            return null;
+        }
+        return ShortBookingDto.builder()
+                .id(booking.getBookingId())
+                .bookerId(booking.getBookerId())
+                .item(mapItemToItemDto(item))
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .status(booking.getStatus())
+                .build();
+    }
+
     public static Item mapItemDtoToItem(ItemDto itemDto, User owner, ItemRequest itemRequest) {
         return Item.builder()
                 .id(itemDto.getId())
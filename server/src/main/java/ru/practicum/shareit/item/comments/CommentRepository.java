@@ -1,5 +1,7 @@
 package ru.practicum.shareit.item.comments;
 
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
@@ -8,5 +10,7 @@ import java.util.List;
 
 @Repository
 public interface CommentRepository extends CrudRepository<Comment, Long> {
+    @EntityGraph(attributePaths = "author")
+    @Query("select c from Comment c where c.item.id in ?1 order by c.created")
     List<Comment> findByItemIdInOrderByCreated(Collection<Long> itemId);
 }
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Карточка вещи и ETag, посчитанный по тем же загруженным данным.
+ */
+@Data
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ItemWithETag {
+    ItemDto item;
+    String eTag;
+}
@@ -28,4 +28,7 @@ public class Item {
     String name;
     String description;
     Boolean available;
+
+    @Version
+    Long version;
 }
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.item.pointers;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingStatus;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Embeddable
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BookingSnapshot {
+    @Column(name = "booking_id")
+    Long bookingId;
+
+    @Column(name = "booker_id")
+    Long bookerId;
+
+    @Column(name = "start_date")
+    LocalDateTime start;
+
+    @Column(name = "end_date")
+    LocalDateTime end;
+
+    @Enumerated(EnumType.STRING)
+    BookingStatus status;
+
+    public static BookingSnapshot of(Booking booking) {
+        return new BookingSnapshot(booking.getId(), booking.getBooker().getId(), booking.getStart(),
+                booking.getEnd(), booking.getStatus());
+    }
+}
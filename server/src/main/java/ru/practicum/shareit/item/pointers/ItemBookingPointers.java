@@ -0,0 +1,48 @@
+package ru.practicum.shareit.item.pointers;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Денормализованные последнее и ближайшее будущее бронирования предмета,
+ * чтобы карточка и список вещей владельца строились без обращения к таблице bookings.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "item_booking_pointers")
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ItemBookingPointers {
+    @Id
+    @Column(name = "item_id")
+    Long itemId;
+
+    @Embedded
+    @AttributeOverrides({
+            @AttributeOverride(name = "bookingId", column = @Column(name = "last_booking_id")),
+            @AttributeOverride(name = "bookerId", column = @Column(name = "last_booker_id")),
+            @AttributeOverride(name = "start", column = @Column(name = "last_start_date")),
+            @AttributeOverride(name = "end", column = @Column(name = "last_end_date")),
+            @AttributeOverride(name = "status", column = @Column(name = "last_status"))
+    })
+    BookingSnapshot last;
+
+    @Embedded
+    @AttributeOverrides({
+            @AttributeOverride(name = "bookingId", column = @Column(name = "next_booking_id")),
+            @AttributeOverride(name = "bookerId", column = @Column(name = "next_booker_id")),
+            @AttributeOverride(name = "start", column = @Column(name = "next_start_date")),
+            @AttributeOverride(name = "end", column = @Column(name = "next_end_date")),
+            @AttributeOverride(name = "status", column = @Column(name = "next_status"))
+    })
+    BookingSnapshot next;
+
+    public ItemBookingPointers(Long itemId) {
+        this.itemId = itemId;
+    }
+}
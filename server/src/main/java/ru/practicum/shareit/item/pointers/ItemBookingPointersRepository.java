@@ -0,0 +1,16 @@
+package ru.practicum.shareit.item.pointers;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ItemBookingPointersRepository extends JpaRepository<ItemBookingPointers, Long> {
+    List<ItemBookingPointers> findByNextStartLessThanEqual(LocalDateTime now);
+
+    @Query("select p.itemId from ItemBookingPointers p")
+    List<Long> findAllItemIds();
+}
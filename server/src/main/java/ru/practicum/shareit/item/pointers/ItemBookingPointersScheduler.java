@@ -0,0 +1,37 @@
+package ru.practicum.shareit.item.pointers;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ItemBookingPointersScheduler implements SmartInitializingSingleton {
+    private static final int REBUILD_BATCH_SIZE = 500;
+
+    private final ItemBookingPointersService pointersService;
+
+    /**
+     * Пересчёт выполняется до запуска веб-сервера и планировщика. Каждая пачка фиксируется отдельной транзакцией
+     * под блокировками своих предметов, поэтому другие экземпляры сервера, уже принимающие запросы,
+     * ждут только пачку со своим предметом.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        List<Long> itemIds = pointersService.findRebuildItemIds();
+        for (int from = 0; from < itemIds.size(); from += REBUILD_BATCH_SIZE) {
+            pointersService.rebuild(itemIds.subList(from, Math.min(from + REBUILD_BATCH_SIZE, itemIds.size())));
+        }
+        log.info("Указатели бронирований пересчитаны для {} предметов", itemIds.size());
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.items.booking-pointers.advance-delay}")
+    public void advance() {
+        pointersService.advance();
+    }
+}
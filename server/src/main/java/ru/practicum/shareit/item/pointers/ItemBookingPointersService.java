@@ -0,0 +1,149 @@
+package ru.practicum.shareit.item.pointers;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.lock.ItemLockManager;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ItemBookingPointersService {
+    private final ItemBookingPointersRepository pointersRepository;
+    private final BookingRepository bookingRepository;
+    private final ItemLockManager lockManager;
+
+    /**
+     * Указатели для карточек предметов. Если ближайшее бронирование уже началось, а планировщик
+     * ещё не сдвинул указатель, пара для такого предмета пересчитывается по таблице bookings.
+     */
+    public Map<Long, ItemBookingPointers> findCurrent(Collection<Long> itemIds, LocalDateTime now) {
+        if (itemIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<Long, ItemBookingPointers> pointers = pointersRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(ItemBookingPointers::getItemId, Function.identity()));
+        List<Long> stale = pointers.values().stream()
+                .filter(p -> p.getNext() != null && !p.getNext().getStart().isAfter(now))
+                .map(ItemBookingPointers::getItemId)
+                .toList();
+        if (!stale.isEmpty()) {
+            pointers.putAll(compute(stale, now));
+        }
+        return pointers;
+    }
+
+    @Transactional
+    public void onBookingAdded(Booking booking) {
+        LocalDateTime now = LocalDateTime.now();
+        ItemBookingPointers pointers = pointersRepository.findById(booking.getItem().getId())
+                .orElseGet(() -> new ItemBookingPointers(booking.getItem().getId()));
+        if (booking.getStart().isAfter(now)) {
+            if (pointers.getNext() == null || booking.getStart().isBefore(pointers.getNext().getStart())) {
+                pointers.setNext(BookingSnapshot.of(booking));
+            }
+        } else if (pointers.getLast() == null || booking.getStart().isAfter(pointers.getLast().getStart())) {
+            pointers.setLast(BookingSnapshot.of(booking));
+        }
+        pointersRepository.save(pointers);
+    }
+
+    @Transactional
+    public void onBookingStatusChanged(Booking booking) {
+        Optional<ItemBookingPointers> found = pointersRepository.findById(booking.getItem().getId());
+        if (found.isEmpty()) {
+            return;
+        }
+        ItemBookingPointers pointers = found.get();
+        boolean isLast = pointers.getLast() != null && booking.getId().equals(pointers.getLast().getBookingId());
+        boolean isNext = pointers.getNext() != null && booking.getId().equals(pointers.getNext().getBookingId());
+        if (!isLast && !isNext) {
+            return;
+        }
+        if (booking.getStatus() == BookingStatus.REJECTED) {
+            refresh(List.of(booking.getItem().getId()), LocalDateTime.now());
+            return;
+        }
+        if (isLast) {
+            pointers.getLast().setStatus(booking.getStatus());
+        }
+        if (isNext) {
+            pointers.getNext().setStatus(booking.getStatus());
+        }
+        pointersRepository.save(pointers);
+    }
+
+    @Transactional
+    public int advance() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> itemIds = pointersRepository.findByNextStartLessThanEqual(now).stream()
+                .map(ItemBookingPointers::getItemId)
+                .sorted()
+                .toList();
+        if (itemIds.isEmpty()) {
+            return 0;
+        }
+        itemIds.forEach(lockManager::lockUntilTransactionEnds);
+        refresh(itemIds, now);
+        log.debug("Сдвинуты указатели бронирований для {} предметов", itemIds.size());
+        return itemIds.size();
+    }
+
+    /**
+     * Предметы, указатели которых нужно пересчитать при старте: с бронированиями и с уже сохранёнными указателями,
+     * чтобы удалить пары предметов, у которых бронирований не осталось.
+     */
+    public List<Long> findRebuildItemIds() {
+        Set<Long> itemIds = new TreeSet<>(bookingRepository.findBookedItemIds());
+        itemIds.addAll(pointersRepository.findAllItemIds());
+        return new ArrayList<>(itemIds);
+    }
+
+    /**
+     * Пересчитывает указатели под блокировками предметов, как и {@link #advance()}: параллельное бронирование
+     * не может записать свой указатель между чтением bookings и сохранением пересчитанной пары.
+     */
+    @Transactional
+    public void rebuild(Collection<Long> itemIds) {
+        List<Long> sorted = itemIds.stream()
+                .sorted()
+                .toList();
+        sorted.forEach(lockManager::lockUntilTransactionEnds);
+        refresh(sorted, LocalDateTime.now());
+    }
+
+    private void refresh(Collection<Long> itemIds, LocalDateTime now) {
+        Map<Long, ItemBookingPointers> computed = compute(itemIds, now);
+        List<Long> empty = itemIds.stream()
+                .filter(id -> !computed.containsKey(id))
+                .toList();
+        pointersRepository.saveAll(computed.values());
+        if (!empty.isEmpty()) {
+            pointersRepository.deleteAllByIdInBatch(empty);
+        }
+    }
+
+    private Map<Long, ItemBookingPointers> compute(Collection<Long> itemIds, LocalDateTime now) {
+        Map<Long, ItemBookingPointers> pointers = new HashMap<>();
+        for (Booking booking : bookingRepository.findLastAndNextBookingsByItemIn(itemIds, now)) {
+            ItemBookingPointers itemPointers = pointers.computeIfAbsent(booking.getItem().getId(),
+                    ItemBookingPointers::new);
+            if (booking.getStart().isAfter(now)) {
+                itemPointers.setNext(BookingSnapshot.of(booking));
+            } else {
+                itemPointers.setLast(BookingSnapshot.of(booking));
+            }
+        }
+        return pointers;
+    }
+}
@@ -24,5 +24,18 @@ public interface ItemRepository extends CrudRepository<Item, Long> {
             " or UPPER(i.description) like UPPER(concat('%', ?1, '%')))")
     Page<Item> findByNameOrDescription(String searchPhrase, Pageable page);
 
+    @Query("select i from Item i where i.request.id in ?1")
     List<Item> findByRequestIdIn(Collection<Long> requestIds);
+
+    List<Item> findTop1000ByIdGreaterThanOrderById(Long id);
+
+    @Query("select concat(cast(count(i) as String), '.', cast(coalesce(max(i.id), 0) as String), '.', " +
+            "cast(coalesce(sum(i.version), 0) as String)) " +
+            "from Item i")
+    String findVersionStamp();
+
+    @Query("select concat(cast(count(i) as String), '.', cast(coalesce(max(i.id), 0) as String), '.', " +
+            "cast(coalesce(sum(i.version), 0) as String)) " +
+            "from Item i where i.request.id = ?1")
+    String findVersionStampByRequestId(Long requestId);
 }
@@ -0,0 +1,167 @@
+package ru.practicum.shareit.item.search;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "shareit.items.search.engine", havingValue = "index", matchIfMissing = true)
+public class InvertedIndexItemSearchEngine implements ItemSearchEngine {
+    private static final String SEGMENT_HEADER = "shareit-items-segment-v2";
+
+    private final ItemRepository itemRepository;
+    private final Path segmentPath;
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private volatile InvertedIndex index = new InvertedIndex();
+
+    public InvertedIndexItemSearchEngine(ItemRepository itemRepository,
+                                         @Value("${shareit.items.search.segment-path:}") String segmentPath) {
+        this.itemRepository = itemRepository;
+        this.segmentPath = segmentPath.isBlank() ? null : Path.of(segmentPath);
+    }
+
+    /**
+     * Сегмент с диска используется, только если сохранённая вместе с ним отметка совпадает с текущей:
+     * число вещей, максимальный id и сумма версий. Любое изменение вещи через JPA увеличивает её версию,
+     * поэтому правка описания или доступности без добавления вещей тоже приводит к перестроению.
+     */
+    @PostConstruct
+    public void init() {
+        String stamp = itemRepository.findVersionStamp();
+        InvertedIndex loaded = load(stamp);
+        if (loaded != null) {
+            index = loaded;
+            log.info("Поисковый индекс загружен из {}: {} вещей", segmentPath, loaded.size());
+            return;
+        }
+        rebuild();
+        flush();
+    }
+
+    public void rebuild() {
+        InvertedIndex rebuilt = new InvertedIndex();
+        long lastId = 0;
+        List<Item> batch;
+        while (!(batch = itemRepository.findTop1000ByIdGreaterThanOrderById(lastId)).isEmpty()) {
+            for (Item item : batch) {
+                rebuilt.put(item.getId(), item.getName(), item.getDescription(), Boolean.TRUE.equals(item.getAvailable()));
+            }
+            lastId = batch.get(batch.size() - 1).getId();
+        }
+        index = rebuilt;
+        dirty.set(true);
+        log.info("Поисковый индекс построен: {} вещей", rebuilt.size());
+    }
+
+    @Override
+    public List<Item> search(String phrase, int from, int size) {
+        List<Long> ids = index.search(phrase, from / size * size, size);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Item> items = StreamSupport.stream(itemRepository.findAllById(ids).spliterator(), false)
+                .filter(item -> Boolean.TRUE.equals(item.getAvailable()))
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return ids.stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    @Override
+    public void index(Item item) {
+        InvertedIndex target = index;
+        InvertedIndex.Document previous = target.put(item.getId(), item.getName(), item.getDescription(),
+                Boolean.TRUE.equals(item.getAvailable()));
+        dirty.set(true);
+        afterRollback(() -> target.restore(item.getId(), previous));
+    }
+
+    /**
+     * Отметка читается до снимка индекса: изменение, зафиксированное между ними, попадёт в индекс, но не в отметку,
+     * и при следующем старте индекс просто перестроится.
+     */
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${shareit.items.search.flush-delay:10000}")
+    public void flush() {
+        if (segmentPath == null || !dirty.getAndSet(false)) {
+            return;
+        }
+        try {
+            String stamp = itemRepository.findVersionStamp();
+            Path parent = segmentPath.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path tmp = Files.createTempFile(parent, segmentPath.getFileName().toString(), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeUTF(SEGMENT_HEADER);
+                out.writeUTF(stamp);
+                index.writeTo(out);
+            }
+            Files.move(tmp, segmentPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | DataAccessException e) {
+            dirty.set(true);
+            log.warn("Не удалось сохранить сегмент поискового индекса {}: {}", segmentPath, e.getMessage());
+        }
+    }
+
+    private InvertedIndex load(String stamp) {
+        if (segmentPath == null || !Files.exists(segmentPath)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(segmentPath)))) {
+            if (!SEGMENT_HEADER.equals(in.readUTF())) {
+                throw new IOException("неизвестный формат сегмента");
+            }
+            String savedStamp = in.readUTF();
+            if (!savedStamp.equals(stamp)) {
+                log.info("Сегмент поискового индекса {} устарел ({} вместо {}), индекс будет перестроен",
+                        segmentPath, savedStamp, stamp);
+                return null;
+            }
+            return InvertedIndex.readFrom(in);
+        } catch (IOException e) {
+            log.warn("Сегмент поискового индекса {} не прочитан, индекс будет перестроен: {}", segmentPath, e.getMessage());
+            return null;
+        }
+    }
+
+    private void afterRollback(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    action.run();
+                }
+            }
+        });
+    }
+}
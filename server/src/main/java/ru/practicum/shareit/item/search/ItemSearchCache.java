@@ -0,0 +1,250 @@
+package ru.practicum.shareit.item.search;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Кэш результатов поиска вещей. Записи сбрасываются не по времени, а при изменении вещи,
+ * текст которой до или после изменения подходит под закэшированную фразу.
+ * Чтобы сброс не перебирал весь кэш, фразы дополнительно проиндексированы по опорным словам: самому длинному
+ * слову фразы (находится среди подстрок слов текста) и основе первого слова (находится среди начал основ текста).
+ * Опорные слова обрезаются до {@link #MAX_ANCHOR_LENGTH} символов, поэтому длинная фраза в запросе не увеличивает
+ * число подстрок, которые перебирает сброс.
+ */
+@Component
+@Slf4j
+public class ItemSearchCache {
+    static final int MAX_ANCHOR_LENGTH = 10;
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final Cache<Key, List<ItemDto>> cache;
+    private final ConcurrentHashMap<String, Set<Key>> keysByPhrase = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Set<String>> phrasesByAnchor = new ConcurrentHashMap<>();
+    private final AtomicIntegerArray anchorsByLength = new AtomicIntegerArray(MAX_ANCHOR_LENGTH + 1);
+
+    public ItemSearchCache(@Value("${shareit.items.search.cache-size:10000}") long maximumSize, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .executor(Runnable::run)
+                .removalListener((Key key, List<ItemDto> value, RemovalCause cause) -> unregister(key))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "items.search");
+    }
+
+    /**
+     * Фраза приводится к нижнему регистру, обрезается и схлопывает пробелы, поэтому "Дрель", "дрель " и " ДРЕЛЬ"
+     * делят одну запись. Загрузчик получает ту же приведённую фразу, чтобы запрос к движку совпадал с ключом
+     * и результат не зависел от того, какой вариант написания заполнил запись первым. Ключ попадает в индекс фраз до загрузки,
+     * чтобы сброс во время загрузки её не пропустил, и ещё раз после: снятие регистрации из removalListener
+     * для прежней записи с тем же ключом могло выполниться параллельно.
+     */
+    public List<ItemDto> get(String phrase, int from, int size, Function<String, List<ItemDto>> loader) {
+        Key key = new Key(normalize(phrase), from / size, size);
+        register(key);
+        try {
+            List<ItemDto> result = cache.get(key, k -> List.copyOf(loader.apply(k.phrase)));
+            register(key);
+            return result;
+        } catch (RuntimeException e) {
+            unregister(key);
+            throw e;
+        }
+    }
+
+    /**
+     * Сбрасывает записи, фраза которых находится в переданных текстах (названии и описании вещи).
+     * Сброс повторяется после фиксации транзакции, чтобы параллельный поиск не вернул в кэш старые данные.
+     */
+    public void evictMatching(String... texts) {
+        evict(texts);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(texts);
+                }
+            });
+        }
+    }
+
+    long size() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    int indexedPhrases() {
+        return keysByPhrase.size();
+    }
+
+    /**
+     * Длина самого длинного опорного слова в индексе; уменьшается, когда такие слова уходят из кэша.
+     */
+    int maxAnchorLength() {
+        for (int length = MAX_ANCHOR_LENGTH; length > 0; length--) {
+            if (anchorsByLength.get(length) > 0) {
+                return length;
+            }
+        }
+        return 0;
+    }
+
+    private void evict(String... texts) {
+        StringBuilder joined = new StringBuilder();
+        for (String text : texts) {
+            if (text != null) {
+                joined.append(normalize(text)).append(' ');
+            }
+        }
+        String content = joined.toString();
+        List<String> terms = TextAnalyzer.analyze(content);
+        List<Key> evicted = new ArrayList<>();
+        for (String phrase : candidates(content, terms)) {
+            Set<Key> keys = keysByPhrase.get(phrase);
+            if (keys != null && matches(phrase, content, terms)) {
+                evicted.addAll(keys);
+            }
+        }
+        if (!evicted.isEmpty()) {
+            cache.invalidateAll(evicted);
+            log.debug("Из кэша поиска удалено {} записей", evicted.size());
+        }
+    }
+
+    /**
+     * Фразы, опорное слово которых есть в тексте: подстроки слов текста не длиннее самого длинного опорного слова
+     * и начала основ текста. Проверка совпадения выполняется только для них, а не для всего кэша.
+     */
+    private Set<String> candidates(String content, List<String> terms) {
+        Set<String> candidates = new HashSet<>();
+        int maxLength = maxAnchorLength();
+        for (String word : WHITESPACE.split(content)) {
+            for (int from = 0; from < word.length(); from++) {
+                for (int to = from + 1; to <= Math.min(word.length(), from + maxLength); to++) {
+                    collect(word.substring(from, to), candidates);
+                }
+            }
+        }
+        for (String term : terms) {
+            for (int length = 1; length <= Math.min(term.length(), maxLength); length++) {
+                collect(term.substring(0, length), candidates);
+            }
+        }
+        return candidates;
+    }
+
+    private void collect(String anchor, Set<String> candidates) {
+        Set<String> phrases = phrasesByAnchor.get(anchor);
+        if (phrases != null) {
+            candidates.addAll(phrases);
+        }
+    }
+
+    private void register(Key key) {
+        keysByPhrase.compute(key.phrase, (phrase, keys) -> {
+            if (keys == null) {
+                keys = ConcurrentHashMap.newKeySet();
+                for (String anchor : anchors(phrase)) {
+                    phrasesByAnchor.compute(anchor, (a, phrases) -> {
+                        if (phrases == null) {
+                            phrases = ConcurrentHashMap.newKeySet();
+                            anchorsByLength.incrementAndGet(a.length());
+                        }
+                        phrases.add(phrase);
+                        return phrases;
+                    });
+                }
+            }
+            keys.add(key);
+            return keys;
+        });
+    }
+
+    private void unregister(Key key) {
+        if (key == null || cache.asMap().containsKey(key)) {
+            return;
+        }
+        keysByPhrase.computeIfPresent(key.phrase, (phrase, keys) -> {
+            keys.remove(key);
+            if (!keys.isEmpty()) {
+                return keys;
+            }
+            for (String anchor : anchors(phrase)) {
+                phrasesByAnchor.computeIfPresent(anchor, (a, phrases) -> {
+                    phrases.remove(phrase);
+                    if (!phrases.isEmpty()) {
+                        return phrases;
+                    }
+                    anchorsByLength.decrementAndGet(a.length());
+                    return null;
+                });
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Начало подходящего слова тоже подходит: подстрока слова остаётся подстрокой, начало основы остаётся началом.
+     * Поэтому обрезка опорных слов может добавить лишних кандидатов, но не теряет нужных.
+     */
+    private static Set<String> anchors(String phrase) {
+        Set<String> anchors = new HashSet<>();
+        Arrays.stream(WHITESPACE.split(phrase))
+                .max(Comparator.comparingInt(String::length))
+                .filter(word -> !word.isEmpty())
+                .ifPresent(word -> anchors.add(truncate(word)));
+        List<String> terms = TextAnalyzer.analyze(phrase);
+        if (!terms.isEmpty()) {
+            anchors.add(truncate(terms.get(0)));
+        }
+        return anchors;
+    }
+
+    private static String truncate(String anchor) {
+        return anchor.length() > MAX_ANCHOR_LENGTH ? anchor.substring(0, MAX_ANCHOR_LENGTH) : anchor;
+    }
+
+    private static String normalize(String text) {
+        return WHITESPACE.matcher(text.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean matches(String phrase, String content, List<String> terms) {
+        if (content.contains(phrase)) {
+            return true;
+        }
+        List<String> phraseTerms = TextAnalyzer.analyze(phrase);
+        return !phraseTerms.isEmpty() && phraseTerms.stream()
+                .allMatch(phraseTerm -> terms.stream().anyMatch(term -> term.startsWith(phraseTerm)));
+    }
+
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    private static final class Key {
+        private final String phrase;
+        private final int page;
+        private final int size;
+    }
+}
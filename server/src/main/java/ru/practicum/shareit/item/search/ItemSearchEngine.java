@@ -0,0 +1,11 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+public interface ItemSearchEngine {
+    List<Item> search(String phrase, int from, int size);
+
+    void index(Item item);
+}
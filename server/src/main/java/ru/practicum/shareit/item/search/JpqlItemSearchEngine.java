@@ -0,0 +1,26 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.items.search.engine", havingValue = "jpql")
+public class JpqlItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<Item> search(String phrase, int from, int size) {
+        return itemRepository.findByNameOrDescription(phrase, PageRequest.of(from / size, size)).getContent();
+    }
+
+    @Override
+    public void index(Item item) {
+    }
+}
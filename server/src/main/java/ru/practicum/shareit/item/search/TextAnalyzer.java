@@ -0,0 +1,160 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Разбивает текст на слова и приводит их к основе облегчёнными стеммерами для русского и английского языков.
+ */
+final class TextAnalyzer {
+    private static final int MIN_STEM_LENGTH = 2;
+    private static final String RU_VOWELS = "аеиоуыэюя";
+    private static final String[] RU_REFLEXIVE = {"ся", "сь"};
+    private static final String[] RU_ENDINGS = sortedByLength(
+            // деепричастия и глаголы
+            "ившись", "ывшись", "вшись", "ивши", "ывши", "вши", "ив", "ыв",
+            "ейте", "уйте", "ите", "йте", "ила", "ыла", "ена", "ило", "ыло", "ено", "ели", "или", "ыли",
+            "ует", "уют", "ишь", "ешь", "ете", "ует", "ены", "ить", "ыть", "ать", "ять", "еть", "ют", "ят",
+            "ит", "ыт", "ет", "ем", "им", "ым", "ла", "на", "ли", "ло", "но", "ть", "ей", "уй", "ил", "ыл",
+            "ен", "ю", "л", "й",
+            // прилагательные и причастия
+            "ими", "ыми", "его", "ого", "ему", "ому", "ее", "ие", "ые", "ое", "ей", "ий", "ый", "ой", "ем",
+            "им", "ым", "ом", "их", "ых", "ую", "юю", "ая", "яя", "ою", "ею",
+            // существительные
+            "иями", "ями", "ами", "ией", "иям", "ием", "иях", "ев", "ов", "ие", "ье", "еи", "ии", "ей", "ой",
+            "ий", "ям", "ем", "ам", "ом", "ах", "ях", "ию", "ью", "ия", "ья", "а", "е", "и", "о", "у", "ы",
+            "ь", "ю", "я");
+
+    private TextAnalyzer() {
+    }
+
+    static List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        String normalized = text.toLowerCase(Locale.ROOT).replace('ё', 'е');
+        int start = -1;
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean wordChar = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                terms.add(stem(normalized.substring(start, i)));
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    static String stem(String word) {
+        if (isCyrillic(word)) {
+            return stemRussian(word);
+        }
+        if (isLatin(word)) {
+            return stemEnglish(word);
+        }
+        return word;
+    }
+
+    private static String stemRussian(String word) {
+        int rv = 0;
+        while (rv < word.length() && RU_VOWELS.indexOf(word.charAt(rv)) < 0) {
+            rv++;
+        }
+        rv++;
+        if (rv >= word.length()) {
+            return word;
+        }
+        String stem = stripEnding(word, RU_REFLEXIVE, rv);
+        stem = stripEnding(stem, RU_ENDINGS, rv);
+        if (stem.endsWith("ость") && stem.length() - 4 >= rv) {
+            stem = stem.substring(0, stem.length() - 4);
+        } else if (stem.endsWith("ост") && stem.length() - 3 >= rv) {
+            stem = stem.substring(0, stem.length() - 3);
+        }
+        if (stem.endsWith("нн")) {
+            stem = stem.substring(0, stem.length() - 1);
+        }
+        if (stem.endsWith("ь") && stem.length() - 1 >= Math.max(rv, MIN_STEM_LENGTH)) {
+            stem = stem.substring(0, stem.length() - 1);
+        }
+        return stem;
+    }
+
+    private static String stemEnglish(String word) {
+        if (word.length() <= 3) {
+            return word;
+        }
+        String stem = word;
+        if (stem.endsWith("sses")) {
+            stem = stem.substring(0, stem.length() - 2);
+        } else if (stem.endsWith("ies")) {
+            stem = stem.substring(0, stem.length() - 3) + "y";
+        } else if (stem.endsWith("s") && !stem.endsWith("ss") && !stem.endsWith("us")) {
+            stem = stem.substring(0, stem.length() - 1);
+        }
+        for (String suffix : new String[]{"ingly", "edly", "ing", "ed", "ly"}) {
+            if (stem.endsWith(suffix) && hasLatinVowel(stem.substring(0, stem.length() - suffix.length()))
+                    && stem.length() - suffix.length() >= 3) {
+                stem = stem.substring(0, stem.length() - suffix.length());
+                char last = stem.charAt(stem.length() - 1);
+                if (last == stem.charAt(stem.length() - 2) && "lsz".indexOf(last) < 0 && !isLatinVowel(last)) {
+                    stem = stem.substring(0, stem.length() - 1);
+                }
+                break;
+            }
+        }
+        return stem;
+    }
+
+    private static String stripEnding(String word, String[] endings, int rv) {
+        for (String ending : endings) {
+            int stemLength = word.length() - ending.length();
+            if (word.endsWith(ending) && stemLength >= rv && stemLength >= MIN_STEM_LENGTH) {
+                return word.substring(0, stemLength);
+            }
+        }
+        return word;
+    }
+
+    private static boolean isCyrillic(String word) {
+        for (int i = 0; i < word.length(); i++) {
+            if (Character.UnicodeBlock.of(word.charAt(i)) == Character.UnicodeBlock.CYRILLIC) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isLatin(String word) {
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            if (c < 'a' || c > 'z') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean hasLatinVowel(String word) {
+        for (int i = 0; i < word.length(); i++) {
+            if (isLatinVowel(word.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isLatinVowel(char c) {
+        return "aeiouy".indexOf(c) >= 0;
+    }
+
+    private static String[] sortedByLength(String... endings) {
+        return java.util.Arrays.stream(endings)
+                .distinct()
+                .sorted((a, b) -> b.length() - a.length())
+                .toArray(String[]::new);
+    }
+}
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.item.search;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+/**
+ * Поиск подстроки средствами PostgreSQL: ILIKE обслуживается частичными GIN-индексами pg_trgm
+ * ix_items_name_trgm и ix_items_description_trgm (schema-postgresql.sql), выдача ранжируется по сходству триграмм.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.items.search.engine", havingValue = "trigram")
+public class TrigramItemSearchEngine implements ItemSearchEngine {
+    static final String SEARCH_SQL = "SELECT i.* FROM items i " +
+            "WHERE i.available = true " +
+            "AND (i.name ILIKE ?1 ESCAPE '\\' OR i.description ILIKE ?1 ESCAPE '\\') " +
+            "ORDER BY GREATEST(word_similarity(?2, i.name), word_similarity(?2, i.description)) DESC, i.id " +
+            "LIMIT ?3 OFFSET ?4";
+
+    private final EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Item> search(String phrase, int from, int size) {
+        return entityManager.createNativeQuery(SEARCH_SQL, Item.class)
+                .setParameter(1, likePattern(phrase))
+                .setParameter(2, phrase)
+                .setParameter(3, size)
+                .setParameter(4, from / size * size)
+                .getResultList();
+    }
+
+    @Override
+    public void index(Item item) {
+    }
+
+    static String likePattern(String phrase) {
+        return "%" + phrase.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+}
@@ -2,6 +2,8 @@ package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.comments.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
+import ru.practicum.shareit.item.dto.ItemWithETag;
 
 import java.util.List;
 
@@ -9,10 +11,18 @@ public interface ItemService {
 
     ItemDto getItemById(Long itemId, Long userId);
 
+    /**
+     * Карточка вещи вместе с ETag: тег считается по уже загруженным вещи, указателям бронирований и отзывам,
+     * поэтому не расходится с отданным представлением.
+     */
+    ItemWithETag getItemWithETag(Long itemId, Long userId);
+
     List<ItemDto> findItemsByOwnerId(Long ownerId, int from, int size);
 
     List<ItemDto> searchItemsByPhrase(String searchPhrase, int from, int size);
 
+    List<ItemSuggestionDto> suggestItemNames(String prefix, int size);
+
     ItemDto addItem(Long ownerId, ItemDto itemDto);
 
     ItemDto updateItem(Long itemId, Long ownerId, ItemDto itemDto);
@@ -3,8 +3,8 @@ package ru.practicum.shareit.item.service;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingRepository;
@@ -12,14 +12,23 @@ import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.NoRightsForUpdateException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.ItemMapper;
 import ru.practicum.shareit.item.comments.Comment;
 import ru.practicum.shareit.item.comments.CommentDto;
 import ru.practicum.shareit.item.comments.CommentMapper;
 import ru.practicum.shareit.item.comments.CommentRepository;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
+import ru.practicum.shareit.item.dto.ItemWithETag;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.pointers.BookingSnapshot;
+import ru.practicum.shareit.item.pointers.ItemBookingPointers;
+import ru.practicum.shareit.item.pointers.ItemBookingPointersService;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.suggest.ItemNameSuggester;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
@@ -39,26 +48,31 @@ public class ItemServiceImpl implements ItemService {
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository requestRepository;
+    private final ItemBookingPointersService pointersService;
+    private final ItemSearchEngine searchEngine;
+    private final ItemSearchCache searchCache;
+    private final ItemNameSuggester nameSuggester;
 
 
     @Override
     public ItemDto getItemById(Long itemId, Long userId) {
+        return getItemWithETag(itemId, userId).getItem();
+    }
+
+    @Override
+    public ItemWithETag getItemWithETag(Long itemId, Long userId) {
         Item item = itemRepository.getItemById(itemId);
         if (item == null) {
             throw new NotFoundException("Предмет", itemId);
         }
-        ItemDto itemDto;
-        List<Booking> bookings;
-        if (Objects.equals(item.getOwner().getId(), userId)) {
-            Sort sort = Sort.by("start").ascending();
-            bookings = bookingRepository.findLastAndNearFutureBookingsByItemIn(Set.of(itemId), LocalDateTime.now(), sort);
-        } else {
-            bookings = Collections.emptyList();
+        boolean isOwner = Objects.equals(item.getOwner().getId(), userId);
+        ItemBookingPointers pointers = null;
+        if (isOwner) {
+            pointers = pointersService.findCurrent(Set.of(itemId), LocalDateTime.now()).get(itemId);
         }
-        List<CommentDto> comments = CommentMapper.mapToCommentDto(commentRepository.findByItemIdInOrderByCreated(Set.of(itemId)));
-        itemDto = ItemMapper.mapToItemDtoWithBookings(item, bookings, comments);
-
-        return itemDto;
+        List<Comment> comments = commentRepository.findByItemIdInOrderByCreated(Set.of(itemId));
+        return new ItemWithETag(ItemMapper.mapToItemDtoWithBookings(item, pointers, CommentMapper.mapToCommentDto(comments)),
+                itemETag(item, isOwner, pointers, comments));
     }
 
     @Override
@@ -69,15 +83,11 @@ public class ItemServiceImpl implements ItemService {
         items = itemRepository.findByOwnerIdOrderById(ownerId, page)
                 .getContent();
         List<ItemDto> itemsWithBookings;
-        Sort sort = Sort.by("start").ascending();
         Collection<Long> itemIds = items.stream().map(Item::getId).collect(Collectors.toSet());
-        Map<Long, List<Booking>> bookings = bookingRepository.findLastAndNearFutureBookingsByItemIn(
-                        itemIds, LocalDateTime.now(), sort)
-                .stream()
-                .collect(Collectors.groupingBy(b -> b.getItem().getId()));
+        Map<Long, ItemBookingPointers> pointers = pointersService.findCurrent(itemIds, LocalDateTime.now());
         Map<Long, List<Comment>> comments = commentRepository.findByItemIdInOrderByCreated(itemIds).stream()
                 .collect(Collectors.groupingBy(c -> c.getItem().getId()));
-        itemsWithBookings = ItemMapper.mapToItemDtoWithBookings(items, bookings, comments);
+        itemsWithBookings = ItemMapper.mapToItemDtoWithBookings(items, pointers, comments);
         return itemsWithBookings;
     }
 
@@ -86,12 +96,19 @@ public class ItemServiceImpl implements ItemService {
         if (searchPhrase == null || searchPhrase.trim().isEmpty()) {
             return Collections.emptyList();
         }
-        PageRequest page = PageRequest.of(from / size, size);
-
-        return itemRepository.findByNameOrDescription(searchPhrase, page)
+        return searchCache.get(searchPhrase, from, size, phrase -> searchEngine.search(phrase, from, size)
                 .stream()
                 .map(ItemMapper::mapItemToItemDto)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<ItemSuggestionDto> suggestItemNames(String prefix, int size) {
+        if (size < 1 || size > ItemNameSuggester.MAX_SUGGESTIONS) {
+            throw new ValidationException("Число подсказок должно быть от 1 до " + ItemNameSuggester.MAX_SUGGESTIONS);
+        }
+        return nameSuggester.suggest(prefix, size);
     }
 
     @Transactional
@@ -107,7 +124,11 @@ public class ItemServiceImpl implements ItemService {
                     .orElseThrow(NotFoundException::new);
         }
         Item item = ItemMapper.mapItemDtoToItem(itemDto, owner.get(), itemRequest);
-        itemDto = ItemMapper.mapItemToItemDto(itemRepository.save(item));
+        Item saved = itemRepository.save(item);
+        searchEngine.index(saved);
+        nameSuggester.index(saved);
+        searchCache.evictMatching(saved.getName(), saved.getDescription());
+        itemDto = ItemMapper.mapItemToItemDto(saved);
         log.info("Предмет с идентификатором {} был добавлен для пользователя {} был создан", item.getId(), ownerId);
         return itemDto;
     }
@@ -131,8 +152,14 @@ public class ItemServiceImpl implements ItemService {
         if (newOwner.isEmpty()) {
             throw new NotFoundException("Пользователь", ownerId);
         }
+        String oldName = item.getName();
+        String oldDescription = item.getDescription();
         ItemMapper.mapItemDtoToItemForUpdate(itemDto, item, newOwner.get());
-        itemDto = ItemMapper.mapItemToItemDto(itemRepository.save(item));
+        Item saved = itemRepository.save(item);
+        searchEngine.index(saved);
+        nameSuggester.index(saved);
+        searchCache.evictMatching(oldName, oldDescription, saved.getName(), saved.getDescription());
+        itemDto = ItemMapper.mapItemToItemDto(saved);
         log.info("Данные предмета с идентификатором {} были обновлены", item.getId());
         return itemDto;
     }
@@ -156,4 +183,25 @@ public class ItemServiceImpl implements ItemService {
         Comment comment = commentRepository.save(CommentMapper.mapToComment(commentDto, item, user.get()));
         return CommentMapper.mapToCommentDto(comment);
     }
+
+    /**
+     * Тег складывается из версии вещи, состояния её отзывов и, для владельца, бронирований из карточки.
+     */
+    /**
+     * Отзывы не меняются после создания, поэтому их часть тега — число, наибольший id и сумма версий авторов,
+     * чьи имена попадают в ответ.
+     */
+    private static String itemETag(Item item, boolean isOwner, ItemBookingPointers pointers, List<Comment> comments) {
+        long maxCommentId = comments.stream().mapToLong(Comment::getId).max().orElse(0);
+        long authorVersions = comments.stream().mapToLong(comment -> comment.getAuthor().getVersion()).sum();
+        String eTag = "i" + item.getId() + "-" + item.getVersion() + "-" + comments.size() + "." + maxCommentId + "." + authorVersions;
+        if (isOwner) {
+            eTag += pointers == null ? "-o" : "-o" + bookingStamp(pointers.getLast()) + "." + bookingStamp(pointers.getNext());
+        }
+        return eTag;
+    }
+
+    private static String bookingStamp(BookingSnapshot booking) {
+        return booking == null ? "0" : booking.getBookingId() + booking.getStatus().name();
+    }
 }
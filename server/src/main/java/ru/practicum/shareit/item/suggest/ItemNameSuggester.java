@@ -0,0 +1,130 @@
+package ru.practicum.shareit.item.suggest;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Подсказки для поиска по мере набора: слова из названий доступных вещей, отсортированные по числу вещей, в которых они встречаются.
+ */
+@Component
+@Slf4j
+public class ItemNameSuggester {
+    public static final int MAX_SUGGESTIONS = 20;
+
+    private final ItemRepository itemRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Set<String>> itemWords = new HashMap<>();
+    private SuggestTrie trie = new SuggestTrie(MAX_SUGGESTIONS);
+
+    public ItemNameSuggester(ItemRepository itemRepository) {
+        this.itemRepository = itemRepository;
+    }
+
+    @PostConstruct
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            trie = new SuggestTrie(MAX_SUGGESTIONS);
+            itemWords.clear();
+            long lastId = 0;
+            List<Item> batch;
+            while (!(batch = itemRepository.findTop1000ByIdGreaterThanOrderById(lastId)).isEmpty()) {
+                batch.forEach(item -> replace(item.getId(), words(item)));
+                lastId = batch.get(batch.size() - 1).getId();
+            }
+            log.info("Словарь подсказок построен: {} вещей", itemWords.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<ItemSuggestionDto> suggest(String prefix, int size) {
+        String normalized = normalize(prefix).trim();
+        if (normalized.isEmpty() || size <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            return trie.suggest(normalized, Math.min(size, MAX_SUGGESTIONS)).stream()
+                    .map(entry -> new ItemSuggestionDto(entry.word, entry.weight))
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void index(Item item) {
+        Set<String> previous;
+        lock.writeLock().lock();
+        try {
+            previous = replace(item.getId(), words(item));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        lock.writeLock().lock();
+                        try {
+                            replace(item.getId(), previous);
+                        } finally {
+                            lock.writeLock().unlock();
+                        }
+                    }
+                }
+            });
+        }
+    }
+
+    private Set<String> replace(Long itemId, Set<String> words) {
+        Set<String> previous = words.isEmpty() ? itemWords.remove(itemId) : itemWords.put(itemId, words);
+        if (previous == null) {
+            previous = Set.of();
+        }
+        for (String word : previous) {
+            if (!words.contains(word)) {
+                trie.add(word, -1);
+            }
+        }
+        for (String word : words) {
+            if (!previous.contains(word)) {
+                trie.add(word, 1);
+            }
+        }
+        return previous;
+    }
+
+    private static Set<String> words(Item item) {
+        Set<String> words = new LinkedHashSet<>();
+        if (!Boolean.TRUE.equals(item.getAvailable()) || item.getName() == null) {
+            return words;
+        }
+        for (String word : normalize(item.getName()).split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT).replace('ё', 'е');
+    }
+}
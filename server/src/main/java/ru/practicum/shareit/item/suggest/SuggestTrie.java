@@ -0,0 +1,202 @@
+package ru.practicum.shareit.item.suggest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Сжатый префиксный граф (radix trie) слов с весами. Каждый узел хранит top-k слов своего поддерева,
+ * поэтому подсказка по префиксу сводится к спуску по нескольким рёбрам без обхода поддерева.
+ * Класс не потокобезопасен.
+ */
+class SuggestTrie {
+    private static final Comparator<Entry> BY_WEIGHT = Comparator.comparingInt((Entry entry) -> entry.weight).reversed()
+            .thenComparing(entry -> entry.word);
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+
+    private final int topSize;
+    private final Node root = new Node("");
+
+    SuggestTrie(int topSize) {
+        this.topSize = topSize;
+    }
+
+    void add(String word, int delta) {
+        if (word.isEmpty() || delta == 0) {
+            return;
+        }
+        List<Node> path = new ArrayList<>();
+        path.add(root);
+        Node node = root;
+        int position = 0;
+        while (position < word.length()) {
+            int index = node.indexOf(word.charAt(position));
+            if (index < 0) {
+                if (delta < 0) {
+                    return;
+                }
+                Node leaf = new Node(word.substring(position));
+                node.insertChild(-index - 1, leaf);
+                node = leaf;
+                path.add(node);
+                break;
+            }
+            Node child = node.children[index];
+            int common = commonPrefix(child.label, word, position);
+            if (common < child.label.length()) {
+                if (delta < 0) {
+                    return;
+                }
+                Node middle = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                middle.children = new Node[]{child};
+                middle.top = child.top;
+                node.children[index] = middle;
+                child = middle;
+            }
+            position += common;
+            node = child;
+            path.add(node);
+        }
+        if (delta < 0 && node.word == null) {
+            return;
+        }
+        node.word = word;
+        node.weight += delta;
+        if (node.weight <= 0) {
+            node.word = null;
+            node.weight = 0;
+        }
+        for (int i = path.size() - 1; i > 0; i--) {
+            Node current = path.get(i);
+            Node parent = path.get(i - 1);
+            if (current.word == null && current.children.length == 0) {
+                parent.removeChild(current);
+                continue;
+            }
+            if (current.word == null && current.children.length == 1) {
+                Node only = current.children[0];
+                only.label = current.label + only.label;
+                parent.children[parent.indexOf(only.label.charAt(0))] = only;
+                continue;
+            }
+            current.recomputeTop();
+        }
+        root.recomputeTop();
+    }
+
+    int weight(String word) {
+        Node node = find(word, true);
+        return node != null && node.word != null ? node.weight : 0;
+    }
+
+    List<Entry> suggest(String prefix, int limit) {
+        Node node = find(prefix, false);
+        if (node == null) {
+            return List.of();
+        }
+        List<Entry> top = Arrays.asList(node.top);
+        return top.size() > limit ? top.subList(0, limit) : top;
+    }
+
+    /**
+     * Спускается по префиксу. Если exact = false, префикс может закончиться посреди ребра —
+     * тогда возвращается узел, в который ведёт это ребро.
+     */
+    private Node find(String prefix, boolean exact) {
+        Node node = root;
+        int position = 0;
+        while (position < prefix.length()) {
+            int index = node.indexOf(prefix.charAt(position));
+            if (index < 0) {
+                return null;
+            }
+            Node child = node.children[index];
+            int common = commonPrefix(child.label, prefix, position);
+            if (common < child.label.length() && (exact || position + common < prefix.length())) {
+                return null;
+            }
+            position += common;
+            node = child;
+        }
+        return node;
+    }
+
+    private static int commonPrefix(String label, String word, int offset) {
+        int length = Math.min(label.length(), word.length() - offset);
+        int i = 0;
+        while (i < length && label.charAt(i) == word.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    static final class Entry {
+        final String word;
+        final int weight;
+
+        private Entry(String word, int weight) {
+            this.word = word;
+            this.weight = weight;
+        }
+    }
+
+    private final class Node {
+        private String label;
+        private Node[] children = NO_CHILDREN;
+        private Entry[] top = NO_ENTRIES;
+        private String word;
+        private int weight;
+
+        private Node(String label) {
+            this.label = label;
+        }
+
+        private int indexOf(char first) {
+            int low = 0;
+            int high = children.length - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                char key = children[middle].label.charAt(0);
+                if (key < first) {
+                    low = middle + 1;
+                } else if (key > first) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+            return -low - 1;
+        }
+
+        private void insertChild(int index, Node child) {
+            Node[] extended = new Node[children.length + 1];
+            System.arraycopy(children, 0, extended, 0, index);
+            extended[index] = child;
+            System.arraycopy(children, index, extended, index + 1, children.length - index);
+            children = extended;
+        }
+
+        private void removeChild(Node child) {
+            int index = indexOf(child.label.charAt(0));
+            Node[] reduced = new Node[children.length - 1];
+            System.arraycopy(children, 0, reduced, 0, index);
+            System.arraycopy(children, index + 1, reduced, index, children.length - index - 1);
+            children = reduced;
+        }
+
+        private void recomputeTop() {
+            List<Entry> candidates = new ArrayList<>();
+            if (word != null) {
+                candidates.add(new Entry(word, weight));
+            }
+            for (Node child : children) {
+                candidates.addAll(Arrays.asList(child.top));
+            }
+            candidates.sort(BY_WEIGHT);
+            top = candidates.subList(0, Math.min(topSize, candidates.size())).toArray(NO_ENTRIES);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.metrics;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Обёртка над пулом соединений, которая сообщает в {@link SqlCounters} о каждом выполненном запросе
+ * и каждой прочитанной строке. Видит весь SQL — и Hibernate, и JdbcTemplate.
+ * Соединения, запросы и выборки оборачиваются обычными делегатами без рефлексии: дополнительная работа есть
+ * только в execute* и {@link java.sql.ResultSet#next()}, остальные вызовы, включая чтение колонок, идут
+ * в драйвер одним виртуальным вызовом.
+ */
+public class CountingDataSource extends DelegatingDataSource {
+    public CountingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return new CountingConnection(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return new CountingConnection(super.getConnection(username, password));
+    }
+}
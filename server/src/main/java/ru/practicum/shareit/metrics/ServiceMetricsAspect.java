@@ -0,0 +1,94 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.ItemRequestService;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Таймер shareit.service на каждый метод сервисов бронирований, вещей, запросов и пользователей.
+ * Теги: service, method, state (фильтр BookingState, если метод его принимает) и exception.
+ * Таймер регистрируется один раз на сочетание тегов, дальше берётся из {@link #timers}.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class ServiceMetricsAspect {
+    static final String TIMER_NAME = "shareit.service";
+    private static final String NONE = "none";
+    private static final List<Class<?>> SERVICES = List.of(BookingService.class, ItemService.class,
+            ItemRequestService.class, UserService.class);
+
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentHashMap<Key, Timer> timers = new ConcurrentHashMap<>();
+
+    @Around("execution(* ru.practicum.shareit.booking.BookingService.*(..))"
+            + " || execution(* ru.practicum.shareit.item.service.ItemService.*(..))"
+            + " || execution(* ru.practicum.shareit.request.ItemRequestService.*(..))"
+            + " || execution(* ru.practicum.shareit.user.service.UserService.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = NONE;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            Key key = new Key(service(joinPoint.getSignature().getDeclaringType()),
+                    joinPoint.getSignature().getName(), state(joinPoint.getArgs()), exception);
+            sample.stop(timers.computeIfAbsent(key, this::register));
+        }
+    }
+
+    private Timer register(Key key) {
+        return Timer.builder(TIMER_NAME)
+                .tag("service", key.service)
+                .tag("method", key.method)
+                .tag("state", key.state)
+                .tag("exception", key.exception)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static String service(Class<?> type) {
+        for (Class<?> service : SERVICES) {
+            if (service.isAssignableFrom(type)) {
+                return service.getSimpleName();
+            }
+        }
+        return type.getSimpleName();
+    }
+
+    private static String state(Object[] args) {
+        for (Object arg : args) {
+            if (arg instanceof BookingState) {
+                return ((BookingState) arg).name();
+            }
+        }
+        return NONE;
+    }
+
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    private static final class Key {
+        private final String service;
+        private final String method;
+        private final String state;
+        private final String exception;
+    }
+}
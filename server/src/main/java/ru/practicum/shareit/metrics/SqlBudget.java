@@ -0,0 +1,20 @@
+package ru.practicum.shareit.metrics;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Сколько SQL-запросов может выполнить один вызов эндпоинта. Превышение пишется в лог и в метрику
+ * shareit.http.sql.budget.exceeded, а при shareit.sql-budget.fail-on-violation=true (в тестах) обрывает
+ * запрос исключением {@link SqlBudgetExceededException}. Бюджет не должен зависеть от размера страницы:
+ * если зависит, это N+1.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SqlBudget {
+    int value();
+}
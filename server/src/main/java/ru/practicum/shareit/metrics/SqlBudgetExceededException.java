@@ -0,0 +1,7 @@
+package ru.practicum.shareit.metrics;
+
+public class SqlBudgetExceededException extends RuntimeException {
+    public SqlBudgetExceededException(int budget) {
+        super(String.format("Превышен бюджет SQL-запросов: больше %d на вызов", budget));
+    }
+}
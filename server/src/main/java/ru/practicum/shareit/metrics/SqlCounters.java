@@ -0,0 +1,70 @@
+package ru.practicum.shareit.metrics;
+
+/**
+ * Счётчики SQL текущего потока: выполненные запросы (пакет executeBatch считается одним) и прочитанные строки.
+ * Считают только между {@link #start()} и {@link #stop()}, вне этого окна обращения к ним ничего не стоят.
+ * Если задан бюджет и включено строгое соблюдение, запрос сверх бюджета завершается исключением.
+ */
+public final class SqlCounters {
+    private static final ThreadLocal<SqlCounters> CURRENT = new ThreadLocal<>();
+
+    private final int budget;
+    private final boolean failOnViolation;
+    private long statements;
+    private long rows;
+
+    private SqlCounters(int budget, boolean failOnViolation) {
+        this.budget = budget;
+        this.failOnViolation = failOnViolation;
+    }
+
+    public static SqlCounters start() {
+        return start(0, false);
+    }
+
+    /**
+     * @param budget допустимое число запросов, 0 — без ограничения
+     */
+    public static SqlCounters start(int budget, boolean failOnViolation) {
+        SqlCounters counters = new SqlCounters(budget, failOnViolation);
+        CURRENT.set(counters);
+        return counters;
+    }
+
+    public static void stop() {
+        CURRENT.remove();
+    }
+
+    public long getStatements() {
+        return statements;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public int getBudget() {
+        return budget;
+    }
+
+    public boolean isOverBudget() {
+        return budget > 0 && statements > budget;
+    }
+
+    static void statementExecuted() {
+        SqlCounters counters = CURRENT.get();
+        if (counters != null) {
+            counters.statements++;
+            if (counters.failOnViolation && counters.isOverBudget()) {
+                throw new SqlBudgetExceededException(counters.budget);
+            }
+        }
+    }
+
+    static void rowFetched() {
+        SqlCounters counters = CURRENT.get();
+        if (counters != null) {
+            counters.rows++;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+@Configuration
+@RequiredArgsConstructor
+public class SqlMetricsConfig implements WebMvcConfigurer {
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    @Value("${shareit.sql-budget.fail-on-violation:false}")
+    private boolean failOnViolation;
+
+    @Bean
+    public static BeanPostProcessor countingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource && !(bean instanceof CountingDataSource)
+                        ? new CountingDataSource((DataSource) bean) : bean;
+            }
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        meterRegistry.ifAvailable(meters -> registry.addInterceptor(new SqlMetricsInterceptor(meters, failOnViolation))
+                .excludePathPatterns("/actuator/**", "/error"));
+    }
+}
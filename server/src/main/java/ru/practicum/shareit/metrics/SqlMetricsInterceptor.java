@@ -0,0 +1,60 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Считает SQL за время обработки запроса и пишет его в shareit.http.sql.statements и shareit.http.sql.rows
+ * с тегами method и uri (шаблон пути, как в http.server.requests). Для эндпоинтов с {@link SqlBudget}
+ * проверяет бюджет.
+ */
+@Slf4j
+@RequiredArgsConstructor
+class SqlMetricsInterceptor implements HandlerInterceptor {
+    private static final String COUNTERS_ATTRIBUTE = SqlMetricsInterceptor.class.getName() + ".counters";
+
+    private final MeterRegistry meterRegistry;
+    private final boolean failOnViolation;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        SqlBudget budget = handler instanceof HandlerMethod
+                ? ((HandlerMethod) handler).getMethodAnnotation(SqlBudget.class) : null;
+        request.setAttribute(COUNTERS_ATTRIBUTE, SqlCounters.start(budget != null ? budget.value() : 0, failOnViolation));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        SqlCounters.stop();
+        SqlCounters counters = (SqlCounters) request.getAttribute(COUNTERS_ATTRIBUTE);
+        if (counters == null) {
+            return;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        summary("shareit.http.sql.statements", request.getMethod(), uri).record(counters.getStatements());
+        summary("shareit.http.sql.rows", request.getMethod(), uri).record(counters.getRows());
+        if (counters.isOverBudget()) {
+            log.warn("{} {}: выполнено {} SQL-запросов при бюджете {}", request.getMethod(), uri,
+                    counters.getStatements(), counters.getBudget());
+            meterRegistry.counter("shareit.http.sql.budget.exceeded", "method", request.getMethod(), "uri", uri)
+                    .increment();
+        }
+    }
+
+    private DistributionSummary summary(String name, String method, String uri) {
+        return DistributionSummary.builder(name)
+                .tag("method", method)
+                .tag("uri", uri)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+}
@@ -25,4 +25,7 @@ public class ItemRequest {
     User requester;
     String description;
     LocalDateTime created;
+
+    @Version
+    Long version;
 }
@@ -2,6 +2,8 @@ package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.metrics.SqlBudget;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDtoWithItems;
 
@@ -14,17 +16,20 @@ public class ItemRequestController {
     private final ItemRequestService requestService;
     private static final String USER_HEADER_ID = "X-Sharer-User-Id";
 
+    @SqlBudget(2)
     @PostMapping
     public ItemRequestDto addItemRequest(@RequestBody ItemRequestDto itemRequestDto,
                                          @RequestHeader(USER_HEADER_ID) Long userId) {
         return requestService.addRequest(itemRequestDto, userId);
     }
 
+    @SqlBudget(3)
     @GetMapping
     public List<ItemRequestDtoWithItems> findAllUserRequests(@RequestHeader(USER_HEADER_ID) Long userId) {
         return requestService.findAll(userId);
     }
 
+    @SqlBudget(3)
     @GetMapping("/all")
     public List<ItemRequestDtoWithItems> findAllRequests(@RequestHeader(USER_HEADER_ID) Long userId,
                                                          @RequestParam(defaultValue = "0") int from,
@@ -32,8 +37,14 @@ public class ItemRequestController {
         return requestService.findAll(userId, from, size);
     }
 
+    @SqlBudget(5)
     @GetMapping("/{requestId}")
-    public ItemRequestDto findRequestById(@RequestHeader(USER_HEADER_ID) Long userId, @PathVariable Long requestId) {
+    public ItemRequestDto findRequestById(@RequestHeader(USER_HEADER_ID) Long userId, @PathVariable Long requestId,
+                                          WebRequest request) {
+        String eTag = requestService.getRequestETag(userId, requestId);
+        if (eTag != null && request.checkNotModified(eTag)) {
+            return null;
+        }
         return requestService.findById(userId, requestId);
     }
 }
@@ -4,12 +4,14 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 
 @Repository
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
+    @Query("select r from ItemRequest r where r.requester.id = ?1")
     List<ItemRequest> findByRequesterId(Long userId, Sort sort);
 
     Page<ItemRequest> findByRequesterIdNot(Long userId, Pageable page);
@@ -13,4 +13,6 @@ public interface ItemRequestService {
     List<ItemRequestDtoWithItems> findAll(Long userId, int from, int size);
 
     ItemRequestDto findById(Long userId, Long requestId);
+
+    String getRequestETag(Long userId, Long requestId);
 }
@@ -76,4 +76,15 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         List<Item> items = itemRepository.findByRequestIdIn(Set.of(requestId));
         return ItemRequestMapper.mapToItemRequestDto(itemRequest, items);
     }
+
+    @Override
+    public String getRequestETag(Long userId, Long requestId) {
+        if (!userRepository.existsById(userId)) {
+            return null;
+        }
+        return requestRepository.findById(requestId)
+                .map(request -> "r" + request.getId() + "-" + request.getVersion() + "-"
+                        + itemRepository.findVersionStampByRequestId(requestId))
+                .orElse(null);
+    }
 }
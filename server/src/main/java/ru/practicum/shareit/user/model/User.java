@@ -19,4 +19,7 @@ public class User {
 
     @Column(unique = true)
     String email;
+
+    @Version
+    Long version;
 }
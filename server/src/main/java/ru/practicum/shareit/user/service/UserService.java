@@ -10,6 +10,8 @@ public interface UserService {
 
     UserDto getUserById(Long userId);
 
+    String getUserETag(Long userId);
+
     UserDto createUser(UserDto userDto);
 
     UserDto updateUser(Long userId, UserDto userDto);
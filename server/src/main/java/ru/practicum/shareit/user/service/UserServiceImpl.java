@@ -38,6 +38,13 @@ public class UserServiceImpl implements UserService {
         return UserMapper.mapUserToUserDto(user.get());
     }
 
+    @Override
+    public String getUserETag(Long userId) {
+        return userRepository.findById(userId)
+                .map(user -> "u" + user.getId() + "-" + user.getVersion())
+                .orElse(null);
+    }
+
     @Transactional
     @Override
     public UserDto createUser(UserDto userDto) {
@@ -0,0 +1,36 @@
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS period tsrange
+    GENERATED ALWAYS AS (tsrange(start_date, end_date, '[)')) STORED;
+
+-- Ограничение создаётся один раз: повторное создание на каждом старте берёт ACCESS EXCLUSIVE
+-- и перестраивает GiST-индекс по всей таблице. Тело DO записано в одинарных кавычках, а не в $$,
+-- потому что Spring делит скрипт по ';' и не понимает dollar quoting.
+--
+-- Старая проверка пропускала бронирование, целиком накрывающее другое, поэтому в существующих данных
+-- могут быть пересечения. Тогда ограничение не создаётся (в лог PostgreSQL пишется WARNING), а пересечения
+-- нужно разобрать вручную, например отклонить более поздние:
+--   UPDATE bookings b SET status = 'REJECTED'
+--   WHERE b.status <> 'REJECTED' AND EXISTS (SELECT 1 FROM bookings o
+--       WHERE o.item_id = b.item_id AND o.id < b.id AND o.status <> 'REJECTED' AND o.period && b.period);
+-- После этого ограничение появится при следующем старте.
+DO '
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_constraint WHERE conname = ''ex_bookings_item_period'') THEN
+        RETURN;
+    END IF;
+    IF EXISTS (SELECT 1 FROM bookings b JOIN bookings o
+               ON o.item_id = b.item_id AND o.id < b.id AND o.period && b.period
+               WHERE b.status <> ''REJECTED'' AND o.status <> ''REJECTED'') THEN
+        RAISE WARNING ''ex_bookings_item_period не создано: в bookings есть пересекающиеся бронирования'';
+        RETURN;
+    END IF;
+    ALTER TABLE bookings ADD CONSTRAINT ex_bookings_item_period
+        EXCLUDE USING gist (item_id WITH =, period WITH &&) WHERE (status <> ''REJECTED'');
+END';
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS ix_items_name_trgm ON items USING gin (name gin_trgm_ops) WHERE available = true;
+
+CREATE INDEX IF NOT EXISTS ix_items_description_trgm ON items USING gin (description gin_trgm_ops) WHERE available = true;
@@ -45,3 +45,31 @@ CREATE TABLE IF NOT EXISTS comments (
     CONSTRAINT fk_comments_to_items FOREIGN KEY (item_id) REFERENCES items(id),
     CONSTRAINT fk_comments_to_bookers FOREIGN KEY (author_id) REFERENCES users(id)
 );
+
+CREATE TABLE IF NOT EXISTS item_booking_pointers (
+    item_id BIGINT PRIMARY KEY,
+    last_booking_id BIGINT,
+    last_booker_id BIGINT,
+    last_start_date timestamp without time zone,
+    last_end_date timestamp without time zone,
+    last_status VARCHAR(50),
+    next_booking_id BIGINT,
+    next_booker_id BIGINT,
+    next_start_date timestamp without time zone,
+    next_end_date timestamp without time zone,
+    next_status VARCHAR(50),
+    CONSTRAINT fk_booking_pointers_to_items FOREIGN KEY (item_id) REFERENCES items(id)
+);
+
+CREATE INDEX IF NOT EXISTS ix_bookings_booker_start ON bookings (booker_id, start_date);
+CREATE INDEX IF NOT EXISTS ix_bookings_item_start ON bookings (item_id, start_date);
+CREATE INDEX IF NOT EXISTS ix_bookings_item_end ON bookings (item_id, end_date);
+CREATE INDEX IF NOT EXISTS ix_items_owner ON items (user_id, id);
+CREATE INDEX IF NOT EXISTS ix_items_request ON items (request_id);
+CREATE INDEX IF NOT EXISTS ix_comments_item_created ON comments (item_id, created);
+CREATE INDEX IF NOT EXISTS ix_requests_requester_created ON requests (user_id, created);
+CREATE INDEX IF NOT EXISTS ix_item_booking_pointers_next_start ON item_booking_pointers (next_start_date);
+
+ALTER TABLE users ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE items ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE requests ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
@@ -0,0 +1,311 @@
+package ru.practicum.shareit;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.item.comments.CommentRepository;
+import ru.practicum.shareit.item.pointers.ItemBookingPointersRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.ItemRequestRepository;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.not;
+
+/**
+ * Прогоняет каждый запрос репозиториев на заполненной базе и проверяет через EXPLAIN,
+ * что ни одна таблица не читается полным сканированием. План строится с теми же значениями параметров,
+ * с которыми запрос выполнялся: с NULL PostgreSQL сворачивает условие "col = NULL" в ложь и не показывает сканирование.
+ */
+@Transactional
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class QueryPlanRegressionTest {
+    private static final int USERS = 50;
+    private static final int REQUESTS = 100;
+    private static final int ITEMS = 300;
+    private static final int BOOKINGS = 3000;
+    private static final int COMMENTS = 500;
+
+    /**
+     * Запросы, которым полное сканирование разрешено: загрузка индекса периодов и указателей при старте,
+     * отметка свежести сегмента поискового индекса, поиск подстроки и выборка чужих запросов по условию "не равно".
+     */
+    private static final Set<String> SCAN_ALLOWED = Set.of(
+            "findAllByEndAfterAndStatusNot",
+            "findAllItemIds",
+            "findBookedItemIds",
+            "findByNameOrDescription",
+            "findByRequesterIdNot",
+            "findVersionStamp");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final CommentRepository commentRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemBookingPointersRepository pointersRepository;
+
+    private final LocalDateTime now = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+    @BeforeEach
+    void seed() {
+        List<Object[]> users = new ArrayList<>();
+        for (int i = 1; i <= USERS; i++) {
+            users.add(new Object[]{"user" + i, "plan" + i + "@test.ru"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (name, email) VALUES (?, ?)", users);
+        long firstUser = jdbcTemplate.queryForObject("SELECT MIN(id) FROM users WHERE email LIKE 'plan%'", Long.class);
+
+        List<Object[]> requests = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            requests.add(new Object[]{firstUser + i % USERS, "Нужна вещь " + i, Timestamp.valueOf(now.minusHours(i))});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO requests (user_id, description, created) VALUES (?, ?, ?)", requests);
+        long firstRequest = jdbcTemplate.queryForObject("SELECT MIN(id) FROM requests", Long.class);
+
+        List<Object[]> items = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            Long request = i % 3 == 0 ? firstRequest + i % REQUESTS : null;
+            items.add(new Object[]{firstUser + i % USERS, request, "Вещь " + i, "Описание " + i, i % 4 != 0});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO items (user_id, request_id, name, description, available) " +
+                "VALUES (?, ?, ?, ?, ?)", items);
+        long firstItem = jdbcTemplate.queryForObject("SELECT MIN(id) FROM items", Long.class);
+
+        List<Object[]> bookings = new ArrayList<>();
+        BookingStatus[] statuses = BookingStatus.values();
+        for (int i = 0; i < BOOKINGS; i++) {
+            LocalDateTime start = now.plusDays(i / ITEMS * 2L - 10);
+            bookings.add(new Object[]{firstUser + i % USERS, firstItem + i % ITEMS, Timestamp.valueOf(start),
+                    Timestamp.valueOf(start.plusDays(1)), statuses[i % statuses.length].name()});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO bookings (booker_id, item_id, start_date, end_date, status) " +
+                "VALUES (?, ?, ?, ?, ?)", bookings);
+
+        List<Object[]> comments = new ArrayList<>();
+        for (int i = 0; i < COMMENTS; i++) {
+            comments.add(new Object[]{firstItem + i % ITEMS, firstUser + i % USERS, "Отзыв " + i,
+                    Timestamp.valueOf(now.minusDays(i))});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO comments (item_id, author_id, text, created) VALUES (?, ?, ?, ?)", comments);
+
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    void testRepositoryQueriesUseIndexes() {
+        long userId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM users WHERE email LIKE 'plan%'", Long.class);
+        long itemId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM items", Long.class);
+        long bookingId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM bookings", Long.class);
+        long requestId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM requests", Long.class);
+        PageRequest page = PageRequest.of(1, 10, Sort.by(Sort.Direction.DESC, "start"));
+        PageRequest seek = PageRequest.ofSize(10);
+
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        queries.put("findByOwnerIdOrBookerId", () -> bookingRepository.findByOwnerIdOrBookerId(bookingId, userId));
+        queries.put("findItemIdById", () -> bookingRepository.findItemIdById(bookingId));
+        queries.put("findItemIdsByIdIn", () -> bookingRepository.findItemIdsByIdIn(List.of(bookingId, bookingId + 1)));
+        queries.put("findAllByIdIn", () -> bookingRepository.findAllByIdIn(List.of(bookingId, bookingId + 1)));
+        queries.put("findAllByEndAfterAndStatusNot",
+                () -> bookingRepository.findAllByEndAfterAndStatusNot(now, BookingStatus.REJECTED));
+        queries.put("findByItemIdAndBookerIdAndStatusNotAndEndBefore",
+                () -> bookingRepository.findByItemIdAndBookerIdAndStatusNotAndEndBefore(itemId, userId,
+                        BookingStatus.REJECTED, now));
+        queries.put("findLastAndNextBookingsByItemIn",
+                () -> bookingRepository.findLastAndNextBookingsByItemIn(List.of(itemId, itemId + 1), now));
+        queries.put("findAllByBookerId", () -> bookingRepository.findAllByBookerId(userId, page));
+        queries.put("findAllBookerCurrentBookings", () -> bookingRepository.findAllBookerCurrentBookings(userId, now, page));
+        queries.put("findAllByBookerIdAndEndBefore", () -> bookingRepository.findAllByBookerIdAndEndBefore(userId, now, page));
+        queries.put("findAllByBookerIdAndStartAfter", () -> bookingRepository.findAllByBookerIdAndStartAfter(userId, now, page));
+        queries.put("findAllByBookerIdAndStatus",
+                () -> bookingRepository.findAllByBookerIdAndStatus(userId, BookingStatus.WAITING, page));
+        queries.put("findAllByItemOwnerId", () -> bookingRepository.findAllByItemOwnerId(userId, page));
+        queries.put("findAllOwnerCurrentBookings", () -> bookingRepository.findAllOwnerCurrentBookings(userId, now, page));
+        queries.put("findAllByItemOwnerIdAndEndBefore",
+                () -> bookingRepository.findAllByItemOwnerIdAndEndBefore(userId, now, page));
+        queries.put("findAllByItemOwnerIdAndStartAfter",
+                () -> bookingRepository.findAllByItemOwnerIdAndStartAfter(userId, now, page));
+        queries.put("findAllByItemOwnerIdAndStatus",
+                () -> bookingRepository.findAllByItemOwnerIdAndStatus(userId, BookingStatus.WAITING, page));
+        queries.put("findSeekByBookerId", () -> bookingRepository.findSeekByBookerId(userId, now, bookingId, seek));
+        queries.put("findSeekBookerCurrentBookings",
+                () -> bookingRepository.findSeekBookerCurrentBookings(userId, now, bookingId, now, seek));
+        queries.put("findSeekByBookerIdAndEndBefore",
+                () -> bookingRepository.findSeekByBookerIdAndEndBefore(userId, now, bookingId, now, seek));
+        queries.put("findSeekByBookerIdAndStartAfter",
+                () -> bookingRepository.findSeekByBookerIdAndStartAfter(userId, now, bookingId, now, seek));
+        queries.put("findSeekByBookerIdAndStatus",
+                () -> bookingRepository.findSeekByBookerIdAndStatus(userId, now, bookingId, BookingStatus.WAITING, seek));
+        queries.put("findSeekByItemOwnerId", () -> bookingRepository.findSeekByItemOwnerId(userId, now, bookingId, seek));
+        queries.put("findSeekOwnerCurrentBookings",
+                () -> bookingRepository.findSeekOwnerCurrentBookings(userId, now, bookingId, now, seek));
+        queries.put("findSeekByItemOwnerIdAndEndBefore",
+                () -> bookingRepository.findSeekByItemOwnerIdAndEndBefore(userId, now, bookingId, now, seek));
+        queries.put("findSeekByItemOwnerIdAndStartAfter",
+                () -> bookingRepository.findSeekByItemOwnerIdAndStartAfter(userId, now, bookingId, now, seek));
+        queries.put("findSeekByItemOwnerIdAndStatus",
+                () -> bookingRepository.findSeekByItemOwnerIdAndStatus(userId, now, bookingId, BookingStatus.WAITING, seek));
+        queries.put("findBookedItemIds", bookingRepository::findBookedItemIds);
+        queries.put("findByNextStartLessThanEqual", () -> pointersRepository.findByNextStartLessThanEqual(now));
+        queries.put("findAllItemIds", pointersRepository::findAllItemIds);
+        queries.put("getItemById", () -> itemRepository.getItemById(itemId));
+        queries.put("findByOwnerIdOrderById", () -> itemRepository.findByOwnerIdOrderById(userId, PageRequest.of(1, 3)));
+        queries.put("findByNameOrDescription",
+                () -> itemRepository.findByNameOrDescription("вещь", PageRequest.of(0, 10)));
+        queries.put("findTop1000ByIdGreaterThanOrderById", () -> itemRepository.findTop1000ByIdGreaterThanOrderById(itemId));
+        queries.put("findVersionStamp", itemRepository::findVersionStamp);
+        queries.put("findVersionStampByRequestId", () -> itemRepository.findVersionStampByRequestId(requestId));
+        queries.put("findByRequestIdIn", () -> itemRepository.findByRequestIdIn(List.of(requestId, requestId + 1)));
+        queries.put("findByItemIdInOrderByCreated",
+                () -> commentRepository.findByItemIdInOrderByCreated(List.of(itemId, itemId + 1)));
+        queries.put("findByRequesterId",
+                () -> itemRequestRepository.findByRequesterId(userId, Sort.by(Sort.Direction.DESC, "created")));
+        queries.put("findByRequesterIdNot", () -> itemRequestRepository.findByRequesterIdNot(userId,
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "created"))));
+
+        List<String> violations = new ArrayList<>();
+        queries.forEach((name, query) -> {
+            CapturingDataSource.STATEMENTS.clear();
+            query.run();
+            List<CapturedStatement> statements = new ArrayList<>(CapturingDataSource.STATEMENTS);
+            assertThat(name + " не выполнил ни одного запроса", statements, not(empty()));
+            if (SCAN_ALLOWED.contains(name)) {
+                return;
+            }
+            for (CapturedStatement statement : statements) {
+                if (statement.sql().contains("?")) {
+                    assertThat(name + " выполнен без привязанных параметров", statement.parameters().keySet(),
+                            not(empty()));
+                }
+                String plan = explain(statement);
+                if (plan.contains(".tableScan") || plan.contains("Seq Scan")) {
+                    violations.add(name + ":\n" + plan);
+                }
+            }
+        });
+
+        assertThat(String.join("\n\n", violations), violations, empty());
+    }
+
+    private String explain(CapturedStatement statement) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            if (connection.getMetaData().getDatabaseProductName().equals("PostgreSQL")) {
+                connection.createStatement().execute("SET LOCAL enable_seqscan = off");
+            }
+            try (PreparedStatement ps = connection.prepareStatement("EXPLAIN " + statement.sql())) {
+                for (Map.Entry<Integer, Object> parameter : statement.parameters().entrySet()) {
+                    ps.setObject(parameter.getKey(), parameter.getValue());
+                }
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        plan.append(rs.getString(1)).append('\n');
+                    }
+                }
+                return plan.toString();
+            }
+        });
+    }
+
+    record CapturedStatement(String sql, Map<Integer, Object> parameters) {
+    }
+
+    @TestConfiguration
+    static class CaptureConfig {
+        @Bean
+        static BeanPostProcessor capturingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource && !(bean instanceof CapturingDataSource)
+                            ? new CapturingDataSource((DataSource) bean) : bean;
+                }
+            };
+        }
+    }
+
+    /**
+     * Запоминает каждый выполненный SELECT вместе со значениями, привязанными к его параметрам.
+     */
+    static class CapturingDataSource extends DelegatingDataSource {
+        static final Queue<CapturedStatement> STATEMENTS = new ConcurrentLinkedQueue<>();
+
+        CapturingDataSource(DataSource targetDataSource) {
+            super(targetDataSource);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            Connection connection = super.getConnection();
+            return proxy(Connection.class, connection, (method, args) -> {
+                Object result = method.invoke(connection, args);
+                if (result instanceof PreparedStatement && args != null && args[0] instanceof String) {
+                    return capture((PreparedStatement) result, (String) args[0]);
+                }
+                return result;
+            });
+        }
+
+        private static PreparedStatement capture(PreparedStatement statement, String sql) {
+            Map<Integer, Object> parameters = new TreeMap<>();
+            return proxy(PreparedStatement.class, statement, (method, args) -> {
+                String name = method.getName();
+                if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                    parameters.put((Integer) args[0], name.equals("setNull") ? null : args[1]);
+                } else if (name.startsWith("execute") && sql.stripLeading().toLowerCase().startsWith("select")) {
+                    STATEMENTS.add(new CapturedStatement(sql, new TreeMap<>(parameters)));
+                }
+                return method.invoke(statement, args);
+            });
+        }
+
+        private static <T> T proxy(Class<T> type, Object target, Invocation invocation) {
+            return type.cast(Proxy.newProxyInstance(QueryPlanRegressionTest.class.getClassLoader(), new Class<?>[]{type},
+                    (proxy, method, args) -> {
+                        try {
+                            return invocation.invoke(method, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        }
+                    }));
+        }
+
+        @FunctionalInterface
+        private interface Invocation {
+            Object invoke(Method method, Object[] args) throws Throwable;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingOutcomeDto;
+import ru.practicum.shareit.booking.dto.NewBookingDto;
+import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+@Transactional
+@SpringBootTest(
+        properties = {"db.name=test", "shareit.booking.conflict-detection=database"},
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class BookingConflictDetectionIntegrationTest {
+    private final UserService userService;
+    private final ItemService itemService;
+    private final BookingService bookingService;
+
+    @Test
+    void testDatabaseConflictDetection() {
+        UserDto owner = userService.createUser(UserDto.builder()
+                .name("Serg")
+                .email("serg@test.ru")
+                .build());
+        UserDto booker = userService.createUser(UserDto.builder()
+                .name("Alex")
+                .email("alex@test.ru")
+                .build());
+        ItemDto item = itemService.addItem(owner.getId(), ItemDto.builder()
+                .name("Бетономешалка")
+                .description("Мешает бетон")
+                .available(true)
+                .build());
+        LocalDateTime start = LocalDateTime.now().plusDays(2);
+
+        BookingDto added = bookingService.add(NewBookingDto.builder()
+                .itemId(item.getId())
+                .start(start)
+                .end(start.plusDays(2))
+                .build(), booker.getId());
+        assertThat(added.getId(), notNullValue());
+
+        NewBookingDto crossed = NewBookingDto.builder()
+                .itemId(item.getId())
+                .start(start.plusDays(1))
+                .end(start.plusDays(3))
+                .build();
+        final BadRequestException exception = Assertions.assertThrows(BadRequestException.class,
+                () -> bookingService.add(crossed, booker.getId()));
+        assertThat(exception.getMessage(), equalTo(BookingConflictDetector.CROSSED_PERIODS_MESSAGE));
+
+        bookingService.approveBooking(added.getId(), false, owner.getId());
+        assertThat(bookingService.add(crossed, booker.getId()).getId(), notNullValue());
+    }
+
+    @Test
+    void testBatchContinuesAfterDatabaseConflict() {
+        UserDto owner = userService.createUser(UserDto.builder()
+                .name("Serg")
+                .email("serg@test.ru")
+                .build());
+        UserDto booker = userService.createUser(UserDto.builder()
+                .name("Alex")
+                .email("alex@test.ru")
+                .build());
+        ItemDto item = itemService.addItem(owner.getId(), ItemDto.builder()
+                .name("Бетономешалка")
+                .description("Мешает бетон")
+                .available(true)
+                .build());
+        LocalDateTime start = LocalDateTime.now().plusDays(2).withNano(999_999_600);
+
+        List<BookingOutcomeDto> outcomes = bookingService.addAll(List.of(
+                period(item, start, start.plusDays(2)),
+                period(item, start.plusDays(1), start.plusDays(3)),
+                period(item, start.plusDays(2), start.plusDays(4))), booker.getId());
+
+        assertThat(outcomes.get(0).getBooking(), notNullValue());
+        assertThat(outcomes.get(1).getError(), equalTo(BookingConflictDetector.CROSSED_PERIODS_MESSAGE));
+        assertThat(outcomes.get(2).getBooking(), notNullValue());
+        assertThat(bookingService.findAllByBookerIdAndBookingState(booker.getId(), BookingState.ALL, 0, 10).size(),
+                equalTo(2));
+    }
+
+    private static NewBookingDto period(ItemDto item, LocalDateTime start, LocalDateTime end) {
+        return NewBookingDto.builder()
+                .itemId(item.getId())
+                .start(start)
+                .end(end)
+                .build();
+    }
+}
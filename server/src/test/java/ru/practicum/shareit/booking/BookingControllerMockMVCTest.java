@@ -11,6 +11,7 @@ import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingSliceDto;
 import ru.practicum.shareit.booking.dto.NewBookingDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -24,6 +25,7 @@ import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -166,4 +168,36 @@ class BookingControllerMockMVCTest {
                 .andExpect(jsonPath("$[0].end", is(bookingDto.getEnd().format(formatter)), String.class))
                 .andExpect(jsonPath("$[0].status", is(bookingDto.getStatus().name()), String.class));
     }
+
+    @Test
+    void testGetOwnerBookingsWithCursor() throws Exception {
+        when(bookingService.findAllByOwnerIdAndBookingState(anyLong(), any(), eq("abc"), anyInt()))
+                .thenReturn(new BookingSliceDto(List.of(bookingDto), "next"));
+
+        mvc.perform(get("/bookings/owner")
+                        .param("cursor", "abc")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header(USER_HEADER_ID, "2")
+                )
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "next"))
+                .andExpect(jsonPath("$[0].id", is(bookingDto.getId()), Long.class));
+    }
+
+    @Test
+    void testGetBookerBookingsWithCursorPagingAndNoCursor() throws Exception {
+        when(bookingService.findAllByBookerIdAndBookingState(anyLong(), any(), isNull(String.class), anyInt()))
+                .thenReturn(new BookingSliceDto(List.of(bookingDto), "next"));
+
+        mvc.perform(get("/bookings")
+                        .param("paging", "CURSOR")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header(USER_HEADER_ID, "1")
+                )
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "next"))
+                .andExpect(jsonPath("$[0].id", is(bookingDto.getId()), Long.class));
+    }
 }
@@ -0,0 +1,117 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.ArgumentMatchers.any;
+
+@ExtendWith(MockitoExtension.class)
+public class BookingOverlapIndexTest {
+    @Mock
+    private BookingRepository bookingRepository;
+
+    private final LocalDateTime now = LocalDateTime.of(2030, 1, 1, 12, 0);
+    private final User booker = new User(2L, "Alex", "alex@test.ru", null);
+    private final Item item = new Item(1L, new User(1L, "Serg", "serg@test.ru", null), null, "Пила", "Пилит", true, null);
+
+    @Test
+    void testRebuildLoadsActiveBookings() {
+        Booking booking = new Booking(1L, booker, item, now.plusDays(1), now.plusDays(3), BookingStatus.WAITING);
+        Mockito
+                .when(bookingRepository.findAllByEndAfterAndStatusNot(any(), Mockito.eq(BookingStatus.REJECTED)))
+                .thenReturn(List.of(booking));
+
+        BookingOverlapIndex index = new BookingOverlapIndex(bookingRepository);
+        index.rebuild();
+
+        assertThat(index.hasCrossedPeriods(1L, now.plusDays(2), now.plusDays(4)), equalTo(true));
+        assertThat(index.hasCrossedPeriods(2L, now.plusDays(2), now.plusDays(4)), equalTo(false));
+    }
+
+    @Test
+    void testRemoveRejectedBooking() {
+        BookingOverlapIndex index = new BookingOverlapIndex(bookingRepository);
+        Booking booking = new Booking(1L, booker, item, now.plusDays(1), now.plusDays(3), BookingStatus.WAITING);
+        index.add(booking);
+        assertThat(index.hasCrossedPeriods(1L, now, now.plusDays(2)), equalTo(true));
+
+        index.remove(booking);
+        assertThat(index.hasCrossedPeriods(1L, now, now.plusDays(2)), equalTo(false));
+    }
+
+    @Test
+    void testEnclosingAndIdenticalPeriodsCross() {
+        BookingOverlapIndex index = new BookingOverlapIndex(bookingRepository);
+        index.add(new Booking(1L, booker, item, now.plusDays(2), now.plusDays(3), BookingStatus.WAITING));
+
+        assertThat(index.hasCrossedPeriods(1L, now.plusDays(1), now.plusDays(4)), equalTo(true));
+        assertThat(index.hasCrossedPeriods(1L, now.plusDays(2), now.plusDays(3)), equalTo(true));
+        assertThat(index.hasCrossedPeriods(1L, now.plusDays(3), now.plusDays(4)), equalTo(false));
+        assertThat(index.hasCrossedPeriods(1L, now.plusDays(1), now.plusDays(2)), equalTo(false));
+    }
+
+    @Test
+    void testRemoveEndedDropsFinishedBookingsAndEmptyItems() {
+        BookingOverlapIndex index = new BookingOverlapIndex(bookingRepository);
+        LocalDateTime past = LocalDateTime.now().minusDays(5);
+        index.add(new Booking(1L, booker, item, past, past.plusDays(1), BookingStatus.APPROVED));
+        index.add(new Booking(2L, booker, item, past.plusDays(2), past.plusDays(3), BookingStatus.APPROVED));
+        assertThat(index.itemCount(), equalTo(1));
+
+        index.removeEnded();
+
+        assertThat(index.itemCount(), equalTo(0));
+        assertThat(index.hasCrossedPeriods(1L, past, past.plusDays(3)), equalTo(false));
+    }
+
+    @Test
+    void testRemoveEndedBeforeKeepsActivePeriods() {
+        BookingIntervalTree tree = new BookingIntervalTree();
+        for (long id = 1; id <= 100; id++) {
+            tree.insert(id, now.plusHours(id), now.plusHours(id + 2));
+        }
+        tree.removeEndedBefore(now.plusHours(52));
+
+        assertThat(tree.size(), equalTo(50));
+        assertThat(tree.crosses(now.plusHours(40), now.plusHours(51)), equalTo(false));
+        assertThat(tree.crosses(now.plusHours(52), now.plusHours(53)), equalTo(true));
+    }
+
+    @Test
+    void testMatchesLinearScan() {
+        Random random = new Random(42);
+        BookingIntervalTree tree = new BookingIntervalTree();
+        List<Booking> bookings = new ArrayList<>();
+        for (long id = 1; id <= 500; id++) {
+            LocalDateTime start = now.plusHours(random.nextInt(5000));
+            LocalDateTime end = start.plusHours(1 + random.nextInt(48));
+            bookings.add(new Booking(id, booker, item, start, end, BookingStatus.WAITING));
+            tree.insert(id, start, end);
+        }
+        for (int i = 0; i < 200; i++) {
+            Booking removed = bookings.remove(random.nextInt(bookings.size()));
+            assertThat(tree.remove(removed.getId(), removed.getStart()), equalTo(true));
+        }
+        assertThat(tree.size(), equalTo(bookings.size()));
+
+        for (int i = 0; i < 2000; i++) {
+            LocalDateTime start = now.plusHours(random.nextInt(5100));
+            LocalDateTime end = start.plusHours(1 + random.nextInt(48));
+            boolean expected = bookings.stream()
+                    .anyMatch(b -> b.getStart().isBefore(end) && start.isBefore(b.getEnd()));
+            assertThat(tree.crosses(start, end), equalTo(expected));
+        }
+    }
+}
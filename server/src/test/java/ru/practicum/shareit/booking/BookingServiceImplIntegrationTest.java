@@ -6,6 +6,8 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingOutcomeDto;
+import ru.practicum.shareit.booking.dto.BookingSliceDto;
 import ru.practicum.shareit.booking.dto.NewBookingDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
@@ -13,6 +15,7 @@ import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.hamcrest.CoreMatchers.allOf;
@@ -71,4 +74,92 @@ public class BookingServiceImplIntegrationTest {
                 hasProperty("end", equalTo(addedBooking.getEnd()))
         )));
     }
+
+    @Test
+    void testFindAllByBookerIdAndBookingStateWithCursor() {
+        UserDto owner = userService.createUser(UserDto.builder()
+                .name("Serg")
+                .email("serg@test.ru")
+                .build());
+        UserDto booker = userService.createUser(UserDto.builder()
+                .name("Alex")
+                .email("alex@test.ru")
+                .build());
+        ItemDto item = itemService.addItem(owner.getId(), ItemDto.builder()
+                .name("Бетономешалка")
+                .description("Мешает бетон")
+                .available(true)
+                .build());
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        for (int i = 0; i < 5; i++) {
+            bookingService.add(NewBookingDto.builder()
+                    .itemId(item.getId())
+                    .start(start.plusDays(i * 2L))
+                    .end(start.plusDays(i * 2L + 1))
+                    .build(), booker.getId());
+        }
+
+        List<BookingDto> expected = bookingService.findAllByBookerIdAndBookingState(booker.getId(),
+                BookingState.ALL, 0, 10);
+        List<BookingDto> actual = new ArrayList<>();
+        String cursor = "";
+        int pages = 0;
+        while (cursor != null) {
+            BookingSliceDto slice = bookingService.findAllByBookerIdAndBookingState(booker.getId(),
+                    BookingState.FUTURE, cursor, 2);
+            actual.addAll(slice.getBookings());
+            cursor = slice.getNextCursor();
+            pages++;
+        }
+
+        assertThat(pages, equalTo(3));
+        assertThat(actual, equalTo(expected));
+    }
+
+    @Test
+    void testBatchAddAndApproveReportPerBookingOutcomes() {
+        UserDto owner = userService.createUser(UserDto.builder()
+                .name("Serg")
+                .email("serg@test.ru")
+                .build());
+        UserDto booker = userService.createUser(UserDto.builder()
+                .name("Alex")
+                .email("alex@test.ru")
+                .build());
+        ItemDto item = itemService.addItem(owner.getId(), ItemDto.builder()
+                .name("Бетономешалка")
+                .description("Мешает бетон")
+                .available(true)
+                .build());
+        LocalDateTime start = LocalDateTime.now().plusDays(2);
+
+        List<BookingOutcomeDto> added = bookingService.addAll(List.of(
+                NewBookingDto.builder().itemId(item.getId()).start(start).end(start.plusDays(1)).build(),
+                NewBookingDto.builder().itemId(item.getId()).start(start.plusHours(1)).end(start.plusDays(2)).build(),
+                NewBookingDto.builder().itemId(-1L).start(start).end(start.plusDays(1)).build(),
+                NewBookingDto.builder().itemId(item.getId()).start(start.plusDays(3)).end(start.plusDays(4)).build()),
+                booker.getId());
+
+        assertThat(added, contains(
+                hasProperty("status", equalTo(200)),
+                hasProperty("status", equalTo(400)),
+                hasProperty("status", equalTo(404)),
+                hasProperty("status", equalTo(200))));
+        Long first = added.get(0).getBookingId();
+        Long second = added.get(3).getBookingId();
+
+        List<BookingOutcomeDto> approved = bookingService.approveBookings(List.of(first, second, first, -1L), true,
+                owner.getId());
+
+        assertThat(approved, contains(
+                allOf(hasProperty("status", equalTo(200)), hasProperty("bookingId", equalTo(first))),
+                allOf(hasProperty("status", equalTo(200)), hasProperty("bookingId", equalTo(second))),
+                hasProperty("status", equalTo(400)),
+                hasProperty("status", equalTo(400))));
+        assertThat(bookingService.findByOwnerIdOrBookerId(second, booker.getId()).getStatus(),
+                equalTo(BookingStatus.APPROVED));
+        assertThat(bookingService.approveBookings(List.of(first), false, booker.getId()).get(0).getStatus(),
+                equalTo(404));
+    }
 }
@@ -9,10 +9,12 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.*;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.NewBookingDto;
+import ru.practicum.shareit.booking.lock.ItemLockManager;
 import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.pointers.ItemBookingPointersService;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
@@ -34,6 +36,13 @@ public class BookingServiceImplUnitTest {
     @Mock
     private ItemRepository itemRepository;
 
+    @Mock
+    private ItemLockManager lockManager;
+    @Mock
+    private ItemBookingPointersService pointersService;
+
+    private BookingOverlapIndex overlapIndex;
+
     private final Sort sort = Sort.by("start").descending();
 
     @Test
@@ -63,7 +72,7 @@ public class BookingServiceImplUnitTest {
     @Test
     void testAddBookingItemNotFound() {
         BookingService service = getBookingService();
-        User booker = new User(2L, "Alex", "alex@test.ru");
+        User booker = new User(2L, "Alex", "alex@test.ru", null);
 
         NewBookingDto newBookingDto = NewBookingDto.builder()
                 .itemId(1L)
@@ -93,9 +102,9 @@ public class BookingServiceImplUnitTest {
     @Test
     void testAddBookingOwnerCantBookOwnItem() {
         BookingService service = getBookingService();
-        User booker = new User(2L, "Alex", "alex@test.ru");
-        User owner = new User(2L, "Alex", "alex@test.ru");
-        Item item = new Item(null, owner, null, "Пила", "Пилит", true);
+        User booker = new User(2L, "Alex", "alex@test.ru", null);
+        User owner = new User(2L, "Alex", "alex@test.ru", null);
+        Item item = new Item(null, owner, null, "Пила", "Пилит", true, null);
 
         NewBookingDto newBookingDto = NewBookingDto.builder()
                 .itemId(1L)
@@ -125,9 +134,9 @@ public class BookingServiceImplUnitTest {
     @Test
     void testAddBookingItemNotAvailable() {
         BookingService service = getBookingService();
-        User booker = new User(2L, "Alex", "alex@test.ru");
-        User owner = new User(1L, "Serg", "serg@test.ru");
-        Item item = new Item(null, owner, null, "Бетономешалка", "Мешает бетон", false);
+        User booker = new User(2L, "Alex", "alex@test.ru", null);
+        User owner = new User(1L, "Serg", "serg@test.ru", null);
+        Item item = new Item(null, owner, null, "Бетономешалка", "Мешает бетон", false, null);
 
         NewBookingDto newBookingDto = NewBookingDto.builder()
                 .itemId(1L)
@@ -157,11 +166,12 @@ public class BookingServiceImplUnitTest {
     @Test
     void testAddBookingItemWithCrossedPeriods() {
         BookingService service = getBookingService();
-        User booker = new User(2L, "Alex", "alex@test.ru");
-        User owner = new User(1L, "Serg", "serg@test.ru");
-        Item item = new Item(null, owner, null, "Бетономешалка",
-                "Мешает бетон", true);
+        User booker = new User(2L, "Alex", "alex@test.ru", null);
+        User owner = new User(1L, "Serg", "serg@test.ru", null);
+        Item item = new Item(1L, owner, null, "Бетономешалка",
+                "Мешает бетон", true, null);
         Booking notCrossedbooking = new Booking(1L, booker, item, LocalDateTime.now().plusDays(3), LocalDateTime.now().plusDays(6), BookingStatus.WAITING);
+        overlapIndex.add(notCrossedbooking);
         NewBookingDto newBookingDto = NewBookingDto.builder()
                 .itemId(1L)
                 .start(LocalDateTime.now().plusDays(2))
@@ -174,9 +184,6 @@ public class BookingServiceImplUnitTest {
         Mockito
                 .when(itemRepository.getItemById(1L))
                 .thenReturn(item);
-        Mockito
-                .when(bookingRepository.findByItemIdAndEndAfter(anyLong(), any()))
-                .thenReturn(List.of(notCrossedbooking));
 
         final BadRequestException exception = Assertions.assertThrows(BadRequestException.class,
                 () -> service.add(newBookingDto, 2L));
@@ -190,12 +197,13 @@ public class BookingServiceImplUnitTest {
     @Test
     void testAddBookingItemOk() {
         BookingService service = getBookingService();
-        User booker = new User(2L, "Alex", "alex@test.ru");
-        User owner = new User(1L, "Serg", "serg@test.ru");
-        Item item = new Item(null, owner, null, "Бетономешалка",
-                "Мешает бетон", true);
+        User booker = new User(2L, "Alex", "alex@test.ru", null);
+        User owner = new User(1L, "Serg", "serg@test.ru", null);
+        Item item = new Item(1L, owner, null, "Бетономешалка",
+                "Мешает бетон", true, null);
         Booking booking = new Booking(1L, booker, item, LocalDateTime.now().plusDays(2), LocalDateTime.now().plusDays(3), BookingStatus.WAITING);
-        Booking notCrossedbooking = new Booking(1L, booker, item, LocalDateTime.now().plusDays(5), LocalDateTime.now().plusDays(6), BookingStatus.WAITING);
+        Booking notCrossedbooking = new Booking(2L, booker, item, LocalDateTime.now().plusDays(5), LocalDateTime.now().plusDays(6), BookingStatus.WAITING);
+        overlapIndex.add(notCrossedbooking);
         NewBookingDto newBookingDto = NewBookingDto.builder()
                 .itemId(1L)
                 .start(LocalDateTime.now().plusDays(2))
@@ -211,9 +219,6 @@ public class BookingServiceImplUnitTest {
         Mockito
                 .when(bookingRepository.save(any()))
                 .thenReturn(booking);
-        Mockito
-                .when(bookingRepository.findByItemIdAndEndAfter(anyLong(), any()))
-                .thenReturn(List.of(notCrossedbooking));
 
         BookingDto bookingDto = service.add(newBookingDto, 2L);
         assertThat(bookingDto.getId(), equalTo(booking.getId()));
@@ -221,6 +226,8 @@ public class BookingServiceImplUnitTest {
                 .findById(2L);
         Mockito.verify(bookingRepository, Mockito.times(1))
                 .save(any());
+        Mockito.verify(lockManager, Mockito.times(1))
+                .lockUntilTransactionEnds(1L);
         Mockito.verify(itemRepository, Mockito.times(1))
                 .getItemById(1L);
     }
@@ -229,6 +236,9 @@ public class BookingServiceImplUnitTest {
     void testApproveBookingNotFound() {
         BookingService service = getBookingService();
 
+        Mockito
+                .when(bookingRepository.findItemIdById(1L))
+                .thenReturn(1L);
         Mockito
                 .when(bookingRepository.findByOwnerIdOrBookerId(1L, 1L))
                 .thenReturn(null);
@@ -236,6 +246,8 @@ public class BookingServiceImplUnitTest {
         final BadRequestException exception = Assertions.assertThrows(BadRequestException.class,
                 () -> service.approveBooking(1L, true, 1L));
 
+        Mockito.verify(bookingRepository, Mockito.times(1))
+                .findItemIdById(1L);
         Mockito.verify(bookingRepository, Mockito.times(1))
                 .findByOwnerIdOrBookerId(1L, 1L);
         Mockito.verifyNoMoreInteractions(bookingRepository);
@@ -246,10 +258,10 @@ public class BookingServiceImplUnitTest {
     @Test
     void testApproveBookingOwnerEqualBooker() {
         BookingService service = getBookingService();
-        User booker = new User(1L, "Ale", "alex@test.ru");
-        User owner = new User(1L, "Alex", "alex@test.ru");
+        User booker = new User(1L, "Ale", "alex@test.ru", null);
+        User owner = new User(1L, "Alex", "alex@test.ru", null);
         Item item = new Item(null, owner, null, "Бетономешалка",
-                "Мешает бетон", false);
+                "Мешает бетон", false, null);
         Booking booking = Booking.builder()
                 .id(1L)
                 .booker(booker)
@@ -258,6 +270,9 @@ public class BookingServiceImplUnitTest {
                 .start(LocalDateTime.now().plusDays(2))
                 .end(LocalDateTime.now().plusDays(3))
                 .build();
+        Mockito
+                .when(bookingRepository.findItemIdById(1L))
+                .thenReturn(1L);
         Mockito
                 .when(bookingRepository.findByOwnerIdOrBookerId(1L, 1L))
                 .thenReturn(booking);
@@ -265,6 +280,8 @@ public class BookingServiceImplUnitTest {
         final NotFoundException exception = Assertions.assertThrows(NotFoundException.class,
                 () -> service.approveBooking(1L, true, 1L));
 
+        Mockito.verify(bookingRepository, Mockito.times(1))
+                .findItemIdById(1L);
         Mockito.verify(bookingRepository, Mockito.times(1))
                 .findByOwnerIdOrBookerId(1L, 1L);
         Mockito.verifyNoMoreInteractions(bookingRepository);
@@ -275,10 +292,10 @@ public class BookingServiceImplUnitTest {
     @Test
     void testApproveBookingStatusNotWaiting() {
         BookingService service = getBookingService();
-        User booker = new User(2L, "Alex", "alex@test.ru");
-        User owner = new User(1L, "Serg", "serg@test.ru");
+        User booker = new User(2L, "Alex", "alex@test.ru", null);
+        User owner = new User(1L, "Serg", "serg@test.ru", null);
         Item item = new Item(null, owner, null, "Бетономешалка",
-                "Мешает бетон", false);
+                "Мешает бетон", false, null);
         Booking booking = Booking.builder()
                 .id(1L)
                 .booker(booker)
@@ -287,6 +304,9 @@ public class BookingServiceImplUnitTest {
                 .start(LocalDateTime.now().plusDays(2))
                 .end(LocalDateTime.now().plusDays(3))
                 .build();
+        Mockito
+                .when(bookingRepository.findItemIdById(1L))
+                .thenReturn(1L);
         Mockito
                 .when(bookingRepository.findByOwnerIdOrBookerId(1L, 1L))
                 .thenReturn(booking);
@@ -294,6 +314,8 @@ public class BookingServiceImplUnitTest {
         final ValidationException exception = Assertions.assertThrows(ValidationException.class,
                 () -> service.approveBooking(1L, true, 1L));
 
+        Mockito.verify(bookingRepository, Mockito.times(1))
+                .findItemIdById(1L);
         Mockito.verify(bookingRepository, Mockito.times(1))
                 .findByOwnerIdOrBookerId(1L, 1L);
         Mockito.verifyNoMoreInteractions(bookingRepository);
@@ -304,10 +326,10 @@ public class BookingServiceImplUnitTest {
     @Test
     void testApproveBookingOk() {
         BookingService service = getBookingService();
-        User booker = new User(2L, "Alex", "alex@test.ru");
-        User owner = new User(1L, "Serg", "serg@test.ru");
+        User booker = new User(2L, "Alex", "alex@test.ru", null);
+        User owner = new User(1L, "Serg", "serg@test.ru", null);
         Item item = new Item(null, owner, null, "Бетономешалка",
-                "Мешает бетон", false);
+                "Мешает бетон", false, null);
         Booking booking = Booking.builder()
                 .id(1L)
                 .booker(booker)
@@ -324,6 +346,9 @@ public class BookingServiceImplUnitTest {
                 .start(LocalDateTime.now().plusDays(2))
                 .end(LocalDateTime.now().plusDays(3))
                 .build();
+        Mockito
+                .when(bookingRepository.findItemIdById(1L))
+                .thenReturn(1L);
         Mockito
                 .when(bookingRepository.findByOwnerIdOrBookerId(1L, 1L))
                 .thenReturn(booking);
@@ -332,6 +357,8 @@ public class BookingServiceImplUnitTest {
                 .thenReturn(bookingApproved);
 
         BookingDto bookingDto = service.approveBooking(1L, true, 1L);
+        Mockito.verify(bookingRepository, Mockito.times(1))
+                .findItemIdById(1L);
         Mockito.verify(bookingRepository, Mockito.times(1))
                 .findByOwnerIdOrBookerId(1L, 1L);
         Mockito.verify(bookingRepository, Mockito.times(1))
@@ -360,7 +387,7 @@ public class BookingServiceImplUnitTest {
     @Test
     void testFindAllByBookerIdAndBookingStateWithStateAll() {
         BookingService service = getBookingService();
-        User booker = new User(2L, "Alex", "aleex@test.ru");
+        User booker = new User(2L, "Alex", "aleex@test.ru", null);
 
         Mockito
                 .when(userRepository.findById(2L))
@@ -381,7 +408,7 @@ public class BookingServiceImplUnitTest {
     @Test
     void testFindAllByBookerIdAndBookingStateWithStateCurrent() {
         BookingService service = getBookingService();
-        User booker = new User(2L, "Alex", "aleex@test.ru");
+        User booker = new User(2L, "Alex", "aleex@test.ru", null);
 
         Mockito.when(userRepository.findById(2L)).thenReturn(Optional.of(booker));
         Page<Booking> emptyPage = new PageImpl<Booking>(List.of());
@@ -401,7 +428,7 @@ public class BookingServiceImplUnitTest {
     @Test
     void testFindAllByBookerIdAndBookingStateWithStatePast() {
         BookingService service = getBookingService();
-        User booker = new User(2L, "Alex", "alex@test.ru");
+        User booker = new User(2L, "Alex", "alex@test.ru", null);
 
         Mockito
                 .when(userRepository.findById(2L))
@@ -423,7 +450,7 @@ public class BookingServiceImplUnitTest {
     @Test
     void testFindAllByBookerIdAndBookingStateWithStateFuture() {
         BookingService service = getBookingService();
-        User booker = new User(2L, "Alex", "alex@test.ru");
+        User booker = new User(2L, "Alex", "alex@test.ru", null);
 
         Mockito
                 .when(userRepository.findById(2L))
@@ -445,7 +472,7 @@ public class BookingServiceImplUnitTest {
     @Test
     void testFindAllByBookerIdAndBookingStateWithStateWaiting() {
         BookingService service = getBookingService();
-        User booker = new User(2L, "Alex", "alex@test.ru");
+        User booker = new User(2L, "Alex", "alex@test.ru", null);
         Mockito
                 .when(userRepository.findById(2L))
                 .thenReturn(Optional.of(booker));
@@ -467,9 +494,9 @@ public class BookingServiceImplUnitTest {
     @Test
     void testFindAllByBookerIdAndBookingStateWithStateRejected() {
         BookingService service = getBookingService();
-        User booker = new User(2L, "Alex", "alex@test.ru");
-        User owner = new User(1L, "Serg", "serg@test.ru");
-        Item item = new Item(null, owner, null, "Бетономешалка", "Мешает бетон", false);
+        User booker = new User(2L, "Alex", "alex@test.ru", null);
+        User owner = new User(1L, "Serg", "serg@test.ru", null);
+        Item item = new Item(null, owner, null, "Бетономешалка", "Мешает бетон", false, null);
         Booking booking = Booking.builder()
                 .id(1L)
                 .booker(booker)
@@ -516,7 +543,7 @@ public class BookingServiceImplUnitTest {
     @Test
     void testFindAllByOwnerIdAndBookingStateWithStateAll() {
         BookingService service = getBookingService();
-        User owner = new User(1L, "ФAlex", "alex@test.ru");
+        User owner = new User(1L, "ФAlex", "alex@test.ru", null);
 
         Mockito
                 .when(userRepository.findById(1L))
@@ -537,7 +564,7 @@ public class BookingServiceImplUnitTest {
     @Test
     void testFindAllByOwnerIdAndBookingStateWithStateCurrent() {
         BookingService service = getBookingService();
-        User owner = new User(1L, "Alex", "alex@test.ru");
+        User owner = new User(1L, "Alex", "alex@test.ru", null);
 
         Mockito
                 .when(userRepository.findById(1L))
@@ -559,7 +586,7 @@ public class BookingServiceImplUnitTest {
     @Test
     void testFindAllByOwnerIdAndBookingStateWithStatePast() {
         BookingService service = getBookingService();
-        User owner = new User(1L, "Alex", "alex@test.ru");
+        User owner = new User(1L, "Alex", "alex@test.ru", null);
 
         Mockito
                 .when(userRepository.findById(1L))
@@ -581,7 +608,7 @@ public class BookingServiceImplUnitTest {
     @Test
     void testFindAllByOwnerIdAndBookingStateWithStateFuture() {
         BookingService service = getBookingService();
-        User owner = new User(1L, "Alex", "alex@test.ru");
+        User owner = new User(1L, "Alex", "alex@test.ru", null);
 
         Mockito
                 .when(userRepository.findById(1L))
@@ -603,7 +630,7 @@ public class BookingServiceImplUnitTest {
     @Test
     void testFindAllByOwnerIdAndBookingStateWithStateWaiting() {
         BookingService service = getBookingService();
-        User owner = new User(1L, "Alex", "alex@test.ru");
+        User owner = new User(1L, "Alex", "alex@test.ru", null);
         Mockito
                 .when(userRepository.findById(1L))
                 .thenReturn(Optional.of(owner));
@@ -625,9 +652,9 @@ public class BookingServiceImplUnitTest {
     @Test
     void testFindAllByOwnerIdAndBookingStateWithStateRejected() {
         BookingService service = getBookingService();
-        User booker = new User(2L, "Alex", "alex@test.ru");
-        User owner = new User(1L, "Alex", "alex@test.ru");
-        Item item = new Item(null, owner, null, "Бетономешалка", "мешает бетон", false);
+        User booker = new User(2L, "Alex", "alex@test.ru", null);
+        User owner = new User(1L, "Alex", "alex@test.ru", null);
+        Item item = new Item(null, owner, null, "Бетономешалка", "мешает бетон", false, null);
         Booking booking = Booking.builder()
                 .id(1L)
                 .booker(booker)
@@ -675,10 +702,10 @@ public class BookingServiceImplUnitTest {
     @Test
     void testFindByOwnerIdOrBookerIdOk() {
         BookingService service = getBookingService();
-        User booker = new User(2L, "Alex", "alex@test.ru");
-        User owner = new User(1L, "Serg", "serg@test.ru");
+        User booker = new User(2L, "Alex", "alex@test.ru", null);
+        User owner = new User(1L, "Serg", "serg@test.ru", null);
         Item item = new Item(null, owner, null, "Бетономешалка",
-                "Мешает бетон", false);
+                "Мешает бетон", false, null);
         Booking booking = Booking.builder()
                 .id(1L)
                 .booker(booker)
@@ -700,6 +727,8 @@ public class BookingServiceImplUnitTest {
     }
 
     private BookingService getBookingService() {
-        return new BookingServiceImpl(bookingRepository, userRepository, itemRepository);
+        overlapIndex = new BookingOverlapIndex(bookingRepository);
+        return new BookingServiceImpl(bookingRepository, userRepository, itemRepository, overlapIndex, lockManager,
+                pointersService);
     }
 }
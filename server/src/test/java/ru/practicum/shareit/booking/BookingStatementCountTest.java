@@ -0,0 +1,130 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.NewBookingDto;
+import ru.practicum.shareit.item.comments.Comment;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+@Transactional
+@SpringBootTest(
+        properties = {"db.name=test", "spring.jpa.properties.hibernate.generate_statistics=true"},
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class BookingStatementCountTest {
+    private static final int ITEMS = 10;
+    private static final int MAX_STATEMENTS = 3;
+
+    private final UserService userService;
+    private final ItemService itemService;
+    private final BookingService bookingService;
+    private final EntityManager entityManager;
+
+    private Statistics statistics;
+    private UserDto owner;
+    private UserDto booker;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        owner = userService.createUser(UserDto.builder()
+                .name("Serg")
+                .email("serg@test.ru")
+                .build());
+        booker = userService.createUser(UserDto.builder()
+                .name("Alex")
+                .email("alex@test.ru")
+                .build());
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<ItemDto> items = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            ItemDto item = itemService.addItem(owner.getId(), ItemDto.builder()
+                    .name("Вещь " + i)
+                    .description("Описание " + i)
+                    .available(true)
+                    .build());
+            items.add(item);
+            bookingService.add(NewBookingDto.builder()
+                    .itemId(item.getId())
+                    .start(start)
+                    .end(start.plusDays(1))
+                    .build(), booker.getId());
+        }
+        for (int i = 0; i < ITEMS; i++) {
+            UserDto other = userService.createUser(UserDto.builder()
+                    .name("User " + i)
+                    .email("user" + i + "@test.ru")
+                    .build());
+            bookingService.add(NewBookingDto.builder()
+                    .itemId(items.get(i).getId())
+                    .start(start.plusDays(2))
+                    .end(start.plusDays(3))
+                    .build(), other.getId());
+            entityManager.persist(new Comment(null, entityManager.getReference(Item.class, items.get(i).getId()),
+                    entityManager.getReference(User.class, other.getId()), "Отзыв " + i, LocalDateTime.now()));
+        }
+        entityManager.flush();
+    }
+
+    @Test
+    void testBookingPagesUseBoundedStatements() {
+        for (BookingState state : BookingState.values()) {
+            assertBounded(() -> bookingService.findAllByBookerIdAndBookingState(booker.getId(), state, 0, ITEMS));
+            assertBounded(() -> bookingService.findAllByOwnerIdAndBookingState(owner.getId(), state, 0, ITEMS));
+            assertBounded(() -> bookingService.findAllByBookerIdAndBookingState(booker.getId(), state, "", ITEMS)
+                    .getBookings());
+            assertBounded(() -> bookingService.findAllByOwnerIdAndBookingState(owner.getId(), state, "", ITEMS)
+                    .getBookings());
+        }
+
+        entityManager.clear();
+        statistics.clear();
+        List<BookingDto> page = bookingService.findAllByOwnerIdAndBookingState(owner.getId(), BookingState.ALL, 0, ITEMS);
+        assertThat(page, hasSize(ITEMS));
+        assertThat(statistics.getPrepareStatementCount(), lessThanOrEqualTo((long) MAX_STATEMENTS));
+    }
+
+    @Test
+    void testOwnerItemsUseBoundedStatements() {
+        entityManager.clear();
+        statistics.clear();
+
+        List<ItemDto> items = itemService.findItemsByOwnerId(owner.getId(), 0, ITEMS);
+
+        assertThat(items, hasSize(ITEMS));
+        assertThat(statistics.getPrepareStatementCount(), lessThanOrEqualTo(4L));
+    }
+
+    private void assertBounded(Supplier<List<BookingDto>> query) {
+        entityManager.clear();
+        statistics.clear();
+        query.get();
+        assertThat(statistics.getPrepareStatementCount(),
+                allOf(greaterThan(0L), lessThanOrEqualTo((long) MAX_STATEMENTS)));
+    }
+}
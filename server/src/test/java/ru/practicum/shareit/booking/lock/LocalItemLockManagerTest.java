@@ -0,0 +1,71 @@
+package ru.practicum.shareit.booking.lock;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+public class LocalItemLockManagerTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final LocalItemLockManager lockManager = new LocalItemLockManager(meterRegistry);
+
+    @Test
+    void testLockOutsideTransaction() {
+        Assertions.assertThrows(IllegalStateException.class, () -> lockManager.lockUntilTransactionEnds(1L));
+    }
+
+    @Test
+    void testSameItemIsSerialized() throws Exception {
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> inTransaction(1L, () -> {
+            locked.countDown();
+            await(release);
+        }));
+        assertThat(locked.await(5, TimeUnit.SECONDS), equalTo(true));
+
+        CompletableFuture<Void> sameItem = CompletableFuture.runAsync(() -> inTransaction(1L, () -> {
+        }));
+        CompletableFuture<Void> otherItem = CompletableFuture.runAsync(() -> inTransaction(2L, () -> {
+        }));
+
+        otherItem.get(5, TimeUnit.SECONDS);
+        Thread.sleep(100);
+        assertThat(sameItem.isDone(), equalTo(false));
+
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        sameItem.get(5, TimeUnit.SECONDS);
+        assertThat(meterRegistry.get("shareit.booking.lock.items").gauge().value(), equalTo(0.0));
+        assertThat(meterRegistry.get("shareit.booking.lock.wait").timer().count(), equalTo(3L));
+    }
+
+    private void inTransaction(long itemId, Runnable body) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            lockManager.lockUntilTransactionEnds(itemId);
+            body.run();
+        } finally {
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            }
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
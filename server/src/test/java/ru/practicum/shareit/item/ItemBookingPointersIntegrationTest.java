@@ -0,0 +1,134 @@
+package ru.practicum.shareit.item;
+
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.NewBookingDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.pointers.BookingSnapshot;
+import ru.practicum.shareit.item.pointers.ItemBookingPointers;
+import ru.practicum.shareit.item.pointers.ItemBookingPointersRepository;
+import ru.practicum.shareit.item.pointers.ItemBookingPointersService;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+
+@Transactional
+@SpringBootTest(properties = "db.name=test", webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class ItemBookingPointersIntegrationTest {
+    private final UserService userService;
+    private final ItemService itemService;
+    private final BookingService bookingService;
+    private final ItemBookingPointersService pointersService;
+    private final ItemBookingPointersRepository pointersRepository;
+
+    private UserDto owner;
+    private UserDto booker;
+    private ItemDto item;
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @BeforeEach
+    void setUp() {
+        owner = userService.createUser(UserDto.builder()
+                .name("Serg")
+                .email("serg@test.ru")
+                .build());
+        booker = userService.createUser(UserDto.builder()
+                .name("Alex")
+                .email("alex@test.ru")
+                .build());
+        item = itemService.addItem(owner.getId(), ItemDto.builder()
+                .name("Пила")
+                .description("Пилит")
+                .available(true)
+                .build());
+    }
+
+    @Test
+    void testPointersFollowAddAndApprove() {
+        BookingDto past = book(now.minusDays(3));
+        BookingDto far = book(now.plusDays(5));
+        BookingDto near = book(now.plusDays(2));
+        bookingService.approveBooking(near.getId(), true, owner.getId());
+
+        ItemBookingPointers pointers = pointersRepository.findById(item.getId()).orElseThrow();
+        assertThat(pointers.getLast().getBookingId(), equalTo(past.getId()));
+        assertThat(pointers.getNext().getBookingId(), equalTo(near.getId()));
+        assertThat(pointers.getNext().getStatus(), equalTo(BookingStatus.APPROVED));
+
+        bookingService.approveBooking(far.getId(), false, owner.getId());
+        assertThat(pointersRepository.findById(item.getId()).orElseThrow().getNext().getBookingId(),
+                equalTo(near.getId()));
+    }
+
+    @Test
+    void testRejectingNextBookingFallsBackToFollowingOne() {
+        BookingDto near = book(now.plusDays(2));
+        BookingDto far = book(now.plusDays(5));
+
+        bookingService.approveBooking(near.getId(), false, owner.getId());
+
+        ItemBookingPointers pointers = pointersRepository.findById(item.getId()).orElseThrow();
+        assertThat(pointers.getLast(), nullValue());
+        assertThat(pointers.getNext().getBookingId(), equalTo(far.getId()));
+    }
+
+    @Test
+    void testAdvanceMovesStartedBookingToLast() {
+        BookingDto started = book(now.minusHours(1));
+        BookingDto next = book(now.plusDays(2));
+        pointersRepository.save(new ItemBookingPointers(item.getId(), null,
+                new BookingSnapshot(started.getId(), booker.getId(), started.getStart(), started.getEnd(),
+                        BookingStatus.WAITING)));
+
+        assertThat(pointersService.advance(), equalTo(1));
+
+        ItemBookingPointers pointers = pointersRepository.findById(item.getId()).orElseThrow();
+        assertThat(pointers.getLast().getBookingId(), equalTo(started.getId()));
+        assertThat(pointers.getNext().getBookingId(), equalTo(next.getId()));
+    }
+
+    @Test
+    void testRebuildRecomputesStalePointersAndDropsItemsWithoutBookings() {
+        BookingDto next = book(now.plusDays(2));
+        ItemDto unbooked = itemService.addItem(owner.getId(), ItemDto.builder()
+                .name("Дрель")
+                .description("Сверлит")
+                .available(true)
+                .build());
+        BookingSnapshot stale = new BookingSnapshot(next.getId(), booker.getId(), next.getStart(), next.getEnd(),
+                BookingStatus.REJECTED);
+        pointersRepository.save(new ItemBookingPointers(item.getId(), stale, null));
+        pointersRepository.save(new ItemBookingPointers(unbooked.getId(), stale, null));
+
+        pointersService.rebuild(pointersService.findRebuildItemIds());
+
+        ItemBookingPointers pointers = pointersRepository.findById(item.getId()).orElseThrow();
+        assertThat(pointers.getLast(), nullValue());
+        assertThat(pointers.getNext().getBookingId(), equalTo(next.getId()));
+        assertThat(pointersRepository.findAllItemIds(), not(hasItem(unbooked.getId())));
+    }
+
+    private BookingDto book(LocalDateTime start) {
+        return bookingService.add(NewBookingDto.builder()
+                .itemId(item.getId())
+                .start(start)
+                .end(start.plusHours(2))
+                .build(), booker.getId());
+    }
+}
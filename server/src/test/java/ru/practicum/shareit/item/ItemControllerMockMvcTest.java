@@ -9,9 +9,13 @@ import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.item.comments.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
+import ru.practicum.shareit.item.dto.ItemWithETag;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
 
 import java.nio.charset.StandardCharsets;
@@ -116,10 +120,26 @@ class ItemControllerMockMvcTest {
                 .andExpect(jsonPath("$.available", is(itemDto.getAvailable()), Boolean.class));
     }
 
+    @Test
+    void testConcurrentUpdateIsConflict() throws Exception {
+        when(itemService.updateItem(anyLong(), anyLong(), any()))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Item.class, 1L));
+
+        mvc.perform(patch("/items/1")
+                        .content(mapper.writeValueAsString(itemDto))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header(USER_HEADER_ID, "1")
+                )
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error", is("Объект изменён другим запросом, повторите попытку"), String.class));
+    }
+
     @Test
     void testGetItemById() throws Exception {
-        when(itemService.getItemById(anyLong(), anyLong()))
-                .thenReturn(itemDto);
+        when(itemService.getItemWithETag(anyLong(), anyLong()))
+                .thenReturn(new ItemWithETag(itemDto, "i1-0-0.0.0"));
 
         mvc.perform(get("/items/1")
                         .characterEncoding(StandardCharsets.UTF_8)
@@ -135,6 +155,18 @@ class ItemControllerMockMvcTest {
                 .andExpect(jsonPath("$.available", is(itemDto.getAvailable()), Boolean.class));
     }
 
+    @Test
+    void testGetItemByIdReturnsNotModifiedForMatchingETag() throws Exception {
+        when(itemService.getItemWithETag(anyLong(), anyLong()))
+                .thenReturn(new ItemWithETag(itemDto, "i1-0-0.0.0"));
+
+        mvc.perform(get("/items/1")
+                        .header(USER_HEADER_ID, "1")
+                        .header("If-None-Match", "\"i1-0-0.0.0\"")
+                )
+                .andExpect(status().isNotModified());
+    }
+
     @Test
     void testFindItemsByOwnerId() throws Exception {
         when(itemService.findItemsByOwnerId(anyLong(), anyInt(), anyInt()))
@@ -172,4 +204,18 @@ class ItemControllerMockMvcTest {
                 .andExpect(jsonPath("$[0].requestId", is(itemDto.getRequestId()), Long.class))
                 .andExpect(jsonPath("$[0].available", is(itemDto.getAvailable()), Boolean.class));
     }
+
+    @Test
+    void testSuggestItemNames() throws Exception {
+        when(itemService.suggestItemNames("бет", 5))
+                .thenReturn(List.of(new ItemSuggestionDto("бетономешалка", 3)));
+
+        mvc.perform(get("/items/suggest?prefix=бет&size=5")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].text", is("бетономешалка")))
+                .andExpect(jsonPath("$[0].items", is(3)));
+    }
 }
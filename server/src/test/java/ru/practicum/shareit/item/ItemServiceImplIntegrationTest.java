@@ -5,11 +5,17 @@ import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.NewBookingDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoWithBookings;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.hamcrest.CoreMatchers.allOf;
@@ -23,6 +29,7 @@ import static org.hamcrest.Matchers.*;
 public class ItemServiceImplIntegrationTest {
     private final ItemService service;
     private final UserService userService;
+    private final BookingService bookingService;
 
     @Test
     void testFindItemsByOwnerId() {
@@ -62,4 +69,112 @@ public class ItemServiceImplIntegrationTest {
                 hasProperty("available", equalTo(addedItemOne.getAvailable()))
         )));
     }
+
+    @Test
+    void testFindItemsByOwnerIdResolvesLastAndNextBookingPerItem() {
+        UserDto owner = userService.createUser(UserDto.builder()
+                .name("Alex")
+                .email("alex@test.ru")
+                .build());
+        UserDto booker = userService.createUser(UserDto.builder()
+                .name("Serg")
+                .email("serg@test.ru")
+                .build());
+        ItemDto first = service.addItem(owner.getId(), ItemDto.builder()
+                .name("Бетономешалка")
+                .description("Мешает бетон")
+                .available(true)
+                .build());
+        ItemDto second = service.addItem(owner.getId(), ItemDto.builder()
+                .name("Перфоратор")
+                .description("Делает отверстия")
+                .available(true)
+                .build());
+
+        LocalDateTime now = LocalDateTime.now();
+        BookingDto firstLast = book(first, booker, now.minusDays(10));
+        book(first, booker, now.minusDays(20));
+        BookingDto firstNext = book(first, booker, now.plusDays(5));
+        book(first, booker, now.plusDays(8));
+        BookingDto secondLast = book(second, booker, now.minusDays(2));
+        BookingDto secondNext = book(second, booker, now.plusDays(1));
+
+        List<ItemDto> items = service.findItemsByOwnerId(owner.getId(), 0, 5);
+
+        assertThat(items, hasSize(2));
+        ItemDtoWithBookings firstDto = (ItemDtoWithBookings) items.get(0);
+        ItemDtoWithBookings secondDto = (ItemDtoWithBookings) items.get(1);
+        assertThat(firstDto.getLastBooking().getId(), equalTo(firstLast.getId()));
+        assertThat(firstDto.getNextBooking().getId(), equalTo(firstNext.getId()));
+        assertThat(secondDto.getLastBooking().getId(), equalTo(secondLast.getId()));
+        assertThat(secondDto.getNextBooking().getId(), equalTo(secondNext.getId()));
+    }
+
+    private BookingDto book(ItemDto item, UserDto booker, LocalDateTime start) {
+        return bookingService.add(NewBookingDto.builder()
+                .itemId(item.getId())
+                .start(start)
+                .end(start.plusHours(1))
+                .build(), booker.getId());
+    }
+
+    @Test
+    void testSuggestItemNamesFollowsItemUpdates() {
+        UserDto owner = userService.createUser(UserDto.builder()
+                .name("Alex")
+                .email("alex@test.ru")
+                .build());
+        service.addItem(owner.getId(), ItemDto.builder()
+                .name("Аккумуляторная дрель")
+                .description("С зарядкой")
+                .available(true)
+                .build());
+        ItemDto hammerDrill = service.addItem(owner.getId(), ItemDto.builder()
+                .name("Дрель ударная")
+                .description("По бетону")
+                .available(true)
+                .build());
+
+        List<ItemSuggestionDto> suggestions = service.suggestItemNames("Дре", 5);
+        assertThat(suggestions, hasSize(1));
+        assertThat(suggestions.get(0), allOf(
+                hasProperty("text", equalTo("дрель")),
+                hasProperty("items", equalTo(2))));
+
+        service.updateItem(hammerDrill.getId(), owner.getId(), ItemDto.builder().name("Перфоратор").build());
+
+        assertThat(service.suggestItemNames("дрель", 5).get(0).getItems(), equalTo(1));
+        assertThat(service.suggestItemNames("уда", 5), empty());
+        assertThat(service.suggestItemNames("пер", 5).get(0).getText(), equalTo("перфоратор"));
+    }
+
+    @Test
+    void testItemETagChangesWithItemAndOwnerView() {
+        UserDto owner = userService.createUser(UserDto.builder()
+                .name("Alex")
+                .email("alex@test.ru")
+                .build());
+        UserDto other = userService.createUser(UserDto.builder()
+                .name("Serg")
+                .email("serg@test.ru")
+                .build());
+        ItemDto item = service.addItem(owner.getId(), ItemDto.builder()
+                .name("Пила")
+                .description("Ручная")
+                .available(true)
+                .build());
+
+        String ownerTag = eTag(item.getId(), owner.getId());
+        String otherTag = eTag(item.getId(), other.getId());
+        assertThat(ownerTag, not(equalTo(otherTag)));
+        assertThat(eTag(item.getId(), other.getId()), equalTo(otherTag));
+
+        service.updateItem(item.getId(), owner.getId(), ItemDto.builder().description("Цепная").build());
+
+        assertThat(eTag(item.getId(), other.getId()), not(equalTo(otherTag)));
+    }
+
+    private String eTag(Long itemId, Long userId) {
+        return service.getItemWithETag(itemId, userId).getETag();
+    }
 }
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.item;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -8,22 +9,28 @@ import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.NoRightsForUpdateException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.comments.Comment;
 import ru.practicum.shareit.item.comments.CommentDto;
 import ru.practicum.shareit.item.comments.CommentRepository;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoWithBookings;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.pointers.BookingSnapshot;
+import ru.practicum.shareit.item.pointers.ItemBookingPointers;
+import ru.practicum.shareit.item.pointers.ItemBookingPointersService;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.JpqlItemSearchEngine;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.item.suggest.ItemNameSuggester;
 import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
@@ -31,6 +38,7 @@ import ru.practicum.shareit.user.repository.UserRepository;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.hamcrest.CoreMatchers.allOf;
@@ -52,6 +60,8 @@ public class ItemServiceImplUnitTest {
     private CommentRepository commentRepository;
     @Mock
     private ItemRequestRepository requestRepository;
+    @Mock
+    private ItemBookingPointersService pointersService;
 
     @Test
     void testGetItemByIdOkByUser() {
@@ -60,8 +70,8 @@ public class ItemServiceImplUnitTest {
         Mockito
                 .when(itemRepository.getItemById(1L))
                 .thenReturn(new Item(1L,
-                        new User(1L, "Alex", "alex@test.com"),
-                        null, "Бетономешалка", "Мешает бетон", true));
+                        new User(1L, "Alex", "alex@test.com", null),
+                        null, "Бетономешалка", "Мешает бетон", true, null));
         Mockito
                 .when(commentRepository.findByItemIdInOrderByCreated(Mockito.anyCollection()))
                 .thenReturn(Collections.emptyList());
@@ -85,23 +95,23 @@ public class ItemServiceImplUnitTest {
     @Test
     void testGetItemByIdOkByUserWithOneBookingLast() {
         ItemService service = makeItemService();
-        User owner = new User(1L, "Alex", "alex@test.ru");
-        User booker = new User(2L, "Serg", "serg@test.ru");
-        Item item = new Item(1L, owner, null, "Бетономешалка", "Мешает бетон", true);
+        User owner = new User(1L, "Alex", "alex@test.ru", null);
+        User booker = new User(2L, "Serg", "serg@test.ru", null);
+        Item item = new Item(1L, owner, null, "Бетономешалка", "Мешает бетон", true, null);
         Booking lastBooking = new Booking(1L, booker, item, LocalDateTime.now().minusDays(4),
                 LocalDateTime.now().minusDays(3), BookingStatus.APPROVED);
 
         Mockito
                 .when(itemRepository.getItemById(1L))
                 .thenReturn(new Item(1L,
-                        new User(1L, "Alex", "alex@test.com"),
-                        null, "Бетономешалка", "Мешает бетон", true));
+                        new User(1L, "Alex", "alex@test.com", null),
+                        null, "Бетономешалка", "Мешает бетон", true, null));
         Mockito
                 .when(commentRepository.findByItemIdInOrderByCreated(Mockito.anyCollection()))
                 .thenReturn(Collections.emptyList());
         Mockito
-                .when(bookingRepository.findLastAndNearFutureBookingsByItemIn(anySet(), Mockito.any(LocalDateTime.class), Mockito.any(Sort.class)))
-                .thenReturn(List.of(lastBooking));
+                .when(pointersService.findCurrent(anySet(), Mockito.any(LocalDateTime.class)))
+                .thenReturn(Map.of(1L, new ItemBookingPointers(1L, BookingSnapshot.of(lastBooking), null)));
 
         ItemDto itemDto = service.getItemById(1L, 1L);
 
@@ -114,8 +124,8 @@ public class ItemServiceImplUnitTest {
 
         Mockito.verify(itemRepository, Mockito.times(1))
                 .getItemById(1L);
-        Mockito.verify(bookingRepository, Mockito.times(1))
-                .findLastAndNearFutureBookingsByItemIn(anySet(), Mockito.any(LocalDateTime.class), Mockito.any(Sort.class));
+        Mockito.verify(pointersService, Mockito.times(1))
+                .findCurrent(anySet(), Mockito.any(LocalDateTime.class));
         Mockito.verify(commentRepository, Mockito.times(1))
                 .findByItemIdInOrderByCreated(Mockito.anyCollection());
     }
@@ -123,23 +133,23 @@ public class ItemServiceImplUnitTest {
     @Test
     void testGetItemByIdOkByUserWithOneBookingFuture() {
         ItemService service = makeItemService();
-        User owner = new User(1L, "Serg", "serg@test.ru");
-        User booker = new User(2L, "Vika", "vika@test.ru");
-        Item item = new Item(1L, owner, null, "Бетономешалка", "Мешает бетон", true);
+        User owner = new User(1L, "Serg", "serg@test.ru", null);
+        User booker = new User(2L, "Vika", "vika@test.ru", null);
+        Item item = new Item(1L, owner, null, "Бетономешалка", "Мешает бетон", true, null);
         Booking nextBooking = new Booking(1L, booker, item, LocalDateTime.now().plusDays(4),
                 LocalDateTime.now().plusDays(6), BookingStatus.APPROVED);
 
         Mockito
                 .when(itemRepository.getItemById(1L))
                 .thenReturn(new Item(1L,
-                        new User(1L, "Alex", "alex@test.com"),
-                        null, "Бетономешалка", "Мешает бетон", true));
+                        new User(1L, "Alex", "alex@test.com", null),
+                        null, "Бетономешалка", "Мешает бетон", true, null));
         Mockito
                 .when(commentRepository.findByItemIdInOrderByCreated(Mockito.anyCollection()))
                 .thenReturn(Collections.emptyList());
         Mockito
-                .when(bookingRepository.findLastAndNearFutureBookingsByItemIn(anySet(), Mockito.any(LocalDateTime.class), Mockito.any(Sort.class)))
-                .thenReturn(List.of(nextBooking));
+                .when(pointersService.findCurrent(anySet(), Mockito.any(LocalDateTime.class)))
+                .thenReturn(Map.of(1L, new ItemBookingPointers(1L, null, BookingSnapshot.of(nextBooking))));
 
         ItemDto itemDto = service.getItemById(1L, 1L);
 
@@ -152,8 +162,8 @@ public class ItemServiceImplUnitTest {
 
         Mockito.verify(itemRepository, Mockito.times(1))
                 .getItemById(1L);
-        Mockito.verify(bookingRepository, Mockito.times(1))
-                .findLastAndNearFutureBookingsByItemIn(anySet(), Mockito.any(LocalDateTime.class), Mockito.any(Sort.class));
+        Mockito.verify(pointersService, Mockito.times(1))
+                .findCurrent(anySet(), Mockito.any(LocalDateTime.class));
         Mockito.verify(commentRepository, Mockito.times(1))
                 .findByItemIdInOrderByCreated(Mockito.anyCollection());
     }
@@ -161,9 +171,9 @@ public class ItemServiceImplUnitTest {
     @Test
     void testGetItemByIdOkByUserWithTwoBooking() {
         ItemService service = makeItemService();
-        User owner = new User(1L, "Serg", "serg@test.ru");
-        User booker = new User(2L, "Vika", "vika@test.ru");
-        Item item = new Item(1L, owner, null, "Пила", "Пилит", true);
+        User owner = new User(1L, "Serg", "serg@test.ru", null);
+        User booker = new User(2L, "Vika", "vika@test.ru", null);
+        Item item = new Item(1L, owner, null, "Пила", "Пилит", true, null);
         Booking lastBooking = new Booking(1L, booker, item, LocalDateTime.now().minusDays(4),
                 LocalDateTime.now().minusDays(3), BookingStatus.APPROVED);
         Booking nextBooking = new Booking(1L, booker, item, LocalDateTime.now().plusDays(3),
@@ -172,17 +182,18 @@ public class ItemServiceImplUnitTest {
         Mockito
                 .when(itemRepository.getItemById(1L))
                 .thenReturn(new Item(1L,
-                        new User(1L, "Alex", "alex@test.com"),
-                        null, "Бетономешалка", "Мешает бетон", true));
+                        new User(1L, "Alex", "alex@test.com", null),
+                        null, "Бетономешалка", "Мешает бетон", true, null));
         Mockito
                 .when(commentRepository.findByItemIdInOrderByCreated(Mockito.anyCollection()))
                 .thenReturn(Collections.emptyList());
         Mockito
-                .when(bookingRepository.findLastAndNearFutureBookingsByItemIn(anySet(), Mockito.any(LocalDateTime.class), Mockito.any(Sort.class)))
-                .thenReturn(List.of(lastBooking, nextBooking));
+                .when(pointersService.findCurrent(anySet(), Mockito.any(LocalDateTime.class)))
+                .thenReturn(Map.of(1L, new ItemBookingPointers(1L, BookingSnapshot.of(lastBooking),
+                        BookingSnapshot.of(nextBooking))));
 
 
-        ItemDto itemDto = service.getItemById(1L, 1L);
+        ItemDtoWithBookings itemDto = (ItemDtoWithBookings) service.getItemById(1L, 1L);
 
         assertThat(itemDto.getId(), equalTo(1L));
         assertThat(itemDto.getOwnerId(), equalTo(1L));
@@ -190,11 +201,13 @@ public class ItemServiceImplUnitTest {
         assertThat(itemDto.getName(), equalTo("Бетономешалка"));
         assertThat(itemDto.getDescription(), equalTo("Мешает бетон"));
         assertThat(itemDto.getAvailable(), equalTo(true));
+        assertThat(itemDto.getLastBooking().getStart(), equalTo(lastBooking.getStart()));
+        assertThat(itemDto.getNextBooking().getStart(), equalTo(nextBooking.getStart()));
 
         Mockito.verify(itemRepository, Mockito.times(1))
                 .getItemById(1L);
-        Mockito.verify(bookingRepository, Mockito.times(1))
-                .findLastAndNearFutureBookingsByItemIn(anySet(), Mockito.any(LocalDateTime.class), Mockito.any(Sort.class));
+        Mockito.verify(pointersService, Mockito.times(1))
+                .findCurrent(anySet(), Mockito.any(LocalDateTime.class));
         Mockito.verify(commentRepository, Mockito.times(1))
                 .findByItemIdInOrderByCreated(Mockito.anyCollection());
     }
@@ -206,12 +219,11 @@ public class ItemServiceImplUnitTest {
         Mockito
                 .when(itemRepository.getItemById(1L))
                 .thenReturn(new Item(1L,
-                        new User(1L, "Alex", "alex@test.com"),
-                        null, "Бетономешалка", "Мешает бетон", true));
+                        new User(1L, "Alex", "alex@test.com", null),
+                        null, "Бетономешалка", "Мешает бетон", true, null));
         Mockito
-                .when(bookingRepository.findLastAndNearFutureBookingsByItemIn(Mockito.anyCollection(),
-                        Mockito.any(LocalDateTime.class), Mockito.any(Sort.class)))
-                .thenReturn(Collections.emptyList());
+                .when(pointersService.findCurrent(Mockito.anyCollection(), Mockito.any(LocalDateTime.class)))
+                .thenReturn(Collections.emptyMap());
         Mockito
                 .when(commentRepository.findByItemIdInOrderByCreated(Mockito.anyCollection()))
                 .thenReturn(Collections.emptyList());
@@ -229,9 +241,8 @@ public class ItemServiceImplUnitTest {
 
         Mockito.verify(itemRepository, Mockito.times(1))
                 .getItemById(1L);
-        Mockito.verify(bookingRepository, Mockito.times(1))
-                .findLastAndNearFutureBookingsByItemIn(Mockito.anyCollection(),
-                        Mockito.any(LocalDateTime.class), Mockito.any(Sort.class));
+        Mockito.verify(pointersService, Mockito.times(1))
+                .findCurrent(Mockito.anyCollection(), Mockito.any(LocalDateTime.class));
         Mockito.verify(commentRepository, Mockito.times(1))
                 .findByItemIdInOrderByCreated(Mockito.anyCollection());
     }
@@ -258,12 +269,12 @@ public class ItemServiceImplUnitTest {
     @Test
     void testAddItemOk() {
         ItemService service = makeItemService();
-        User owner = new User(1L, "Alex", "alex@test.ru");
-        Item newItem = new Item(null, owner, null, "Бетономешалка", "Мешает бетон", true);
+        User owner = new User(1L, "Alex", "alex@test.ru", null);
+        Item newItem = new Item(null, owner, null, "Бетономешалка", "Мешает бетон", true, null);
         Mockito.when(userRepository.findById(Mockito.anyLong()))
                 .thenReturn(Optional.of(owner));
         Mockito.when(itemRepository.save(newItem))
-                .thenReturn(new Item(1L, owner, null, "Бетономешалка", "Мешает бетон", true));
+                .thenReturn(new Item(1L, owner, null, "Бетономешалка", "Мешает бетон", true, null));
 
         ItemDto itemDto = ItemDto.builder()
                 .name("Бетономешалка")
@@ -309,7 +320,7 @@ public class ItemServiceImplUnitTest {
     @Test
     void testAddItemRequestNotFound() {
         ItemService service = makeItemService();
-        User owner = new User(1L, "Alex", "alex@test.ru");
+        User owner = new User(1L, "Alex", "alex@test.ru", null);
 
         Mockito.when(userRepository.findById(1L))
                 .thenReturn(Optional.of(owner));
@@ -360,7 +371,7 @@ public class ItemServiceImplUnitTest {
     @Test
     void testUpdateItemNotFound() {
         ItemService service = makeItemService();
-        User owner = new User(1L, "Alex", "alex@test.ru");
+        User owner = new User(1L, "Alex", "alex@test.ru", null);
 
         Mockito.when(userRepository.findById(1L))
                 .thenReturn(Optional.of(owner));
@@ -387,9 +398,9 @@ public class ItemServiceImplUnitTest {
     @Test
     void testUpdateItemNoRightsForUpdate() {
         ItemService service = makeItemService();
-        User owner = new User(1L, "Alex", "alex@test.ru");
-        User user = new User(2L, "Vika", "vika@test.ru");
-        Item item = new Item(1L, owner, null, "Бетономешалка", "Мешает бетон", true);
+        User owner = new User(1L, "Alex", "alex@test.ru", null);
+        User user = new User(2L, "Vika", "vika@test.ru", null);
+        Item item = new Item(1L, owner, null, "Бетономешалка", "Мешает бетон", true, null);
         Mockito.when(userRepository.findById(2L))
                 .thenReturn(Optional.of(user));
         Mockito.when(itemRepository.getItemById(1L))
@@ -416,8 +427,8 @@ public class ItemServiceImplUnitTest {
     @Test
     void testUpdateItemNewOwnerNotFound() {
         ItemService service = makeItemService();
-        User owner = new User(1L, "Alex", "alex@test.ru");
-        Item item = new Item(1L, owner, null, "Бетономешалка", "Мешает бетон", true);
+        User owner = new User(1L, "Alex", "alex@test.ru", null);
+        Item item = new Item(1L, owner, null, "Бетономешалка", "Мешает бетон", true, null);
         Mockito.when(userRepository.findById(1L))
                 .thenReturn(Optional.of(owner));
         Mockito.when(itemRepository.getItemById(1L))
@@ -449,10 +460,10 @@ public class ItemServiceImplUnitTest {
     @Test
     void testUpdateItemOk() {
         ItemService service = makeItemService();
-        User owner = new User(1L, "Alex", "alex@test.ru");
-        User newOwner = new User(2L, "Vika", "vika@test.ru");
-        Item item = new Item(1L, owner, null, "Бетономешалка", "Мешает бетон", true);
-        Item updatedItem = new Item(1L, newOwner, null, "Перфоратор", "Отличный", false);
+        User owner = new User(1L, "Alex", "alex@test.ru", null);
+        User newOwner = new User(2L, "Vika", "vika@test.ru", null);
+        Item item = new Item(1L, owner, null, "Бетономешалка", "Мешает бетон", true, null);
+        Item updatedItem = new Item(1L, newOwner, null, "Перфоратор", "Отличный", false, null);
         Mockito.when(userRepository.findById(1L))
                 .thenReturn(Optional.of(owner));
         Mockito.when(userRepository.findById(2L))
@@ -496,8 +507,8 @@ public class ItemServiceImplUnitTest {
     @Test
     void searchItemsByPhraseOk() {
         ItemService service = makeItemService();
-        User owner = new User(1L, "Alex", "alex@test.ru");
-        Item item = new Item(1L, owner, null, "Бетономешалка", "Мешает бетон", true);
+        User owner = new User(1L, "Alex", "alex@test.ru", null);
+        Item item = new Item(1L, owner, null, "Бетономешалка", "Мешает бетон", true, null);
         Mockito.when(itemRepository.findByNameOrDescription(anyString(), Mockito.any(PageRequest.class)))
                 .thenReturn(new PageImpl<>(List.of(item)));
 
@@ -541,8 +552,8 @@ public class ItemServiceImplUnitTest {
     void addCommentUserNotFound() {
         ItemService service = makeItemService();
 
-        User owner = new User(1L, "Alex", "alex@test.ru");
-        Item item = new Item(1L, owner, null, "Бетономешалка", "Мешает бетон", true);
+        User owner = new User(1L, "Alex", "alex@test.ru", null);
+        Item item = new Item(1L, owner, null, "Бетономешалка", "Мешает бетон", true, null);
         Mockito.when(itemRepository.getItemById(1L))
                 .thenReturn(item);
         Mockito.when(userRepository.findById(3L))
@@ -567,9 +578,9 @@ public class ItemServiceImplUnitTest {
     void addCommentBookingNotFound() {
         ItemService service = makeItemService();
 
-        User owner = new User(1L, "Alex", "alex@test.ru");
-        Item item = new Item(1L, owner, null, "Бетономешалка", "Мешает бетон", true);
-        User commentator = new User(2L, "SuperCom", "sc@saw.ru");
+        User owner = new User(1L, "Alex", "alex@test.ru", null);
+        Item item = new Item(1L, owner, null, "Бетономешалка", "Мешает бетон", true, null);
+        User commentator = new User(2L, "SuperCom", "sc@saw.ru", null);
 
         Mockito.when(itemRepository.getItemById(1L))
                 .thenReturn(item);
@@ -602,10 +613,10 @@ public class ItemServiceImplUnitTest {
     void addCommentBookingOk() {
         ItemService service = makeItemService();
 
-        User owner = new User(1L, "Alex", "alex@test.ru");
-        User booker = new User(2L, "Vika", "vika@test.ru");
-        Item item = new Item(1L, owner, null, "Бетономешалка", "Мешает бетон", true);
-        User commentator = new User(2L, "SuperCom", "sc@saw.ru");
+        User owner = new User(1L, "Alex", "alex@test.ru", null);
+        User booker = new User(2L, "Vika", "vika@test.ru", null);
+        Item item = new Item(1L, owner, null, "Бетономешалка", "Мешает бетон", true, null);
+        User commentator = new User(2L, "SuperCom", "sc@saw.ru", null);
         Booking booking = new Booking(1L, booker, item, LocalDateTime.now().minusDays(4),
                 LocalDateTime.now().minusDays(3), BookingStatus.APPROVED);
         Comment comment = new Comment(1L, item, booker, "Супер", LocalDateTime.now());
@@ -640,7 +651,21 @@ public class ItemServiceImplUnitTest {
                 .getItemById(1L);
     }
 
+    @Test
+    void suggestItemNamesWithSizeOutOfRange() {
+        ItemService service = makeItemService();
+
+        for (int size : new int[]{-1, 0, ItemNameSuggester.MAX_SUGGESTIONS + 1}) {
+            final ValidationException exception = Assertions.assertThrows(ValidationException.class,
+                    () -> service.suggestItemNames("дре", size));
+
+            assertThat(exception.getMessage(), equalTo("Число подсказок должно быть от 1 до 20"));
+        }
+    }
+
     private ItemService makeItemService() {
-        return new ItemServiceImpl(itemRepository, userRepository, bookingRepository, commentRepository, requestRepository);
+        return new ItemServiceImpl(itemRepository, userRepository, bookingRepository, commentRepository, requestRepository,
+                pointersService, new JpqlItemSearchEngine(itemRepository),
+                new ItemSearchCache(100, new SimpleMeterRegistry()), new ItemNameSuggester(itemRepository));
     }
 }
@@ -0,0 +1,77 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class InvertedIndexItemSearchEngineTest {
+    private final ItemRepository itemRepository = Mockito.mock(ItemRepository.class);
+    private final Item drill = item(1L, "Дрель", true);
+    private final Item saw = item(2L, "Пила", true);
+
+    @TempDir
+    Path dir;
+
+    @BeforeEach
+    void setUp() {
+        when(itemRepository.findTop1000ByIdGreaterThanOrderById(eq(0L))).thenReturn(List.of(drill, saw));
+        when(itemRepository.findTop1000ByIdGreaterThanOrderById(eq(2L))).thenReturn(List.of());
+    }
+
+    @Test
+    void testSegmentIsReusedOnlyWhileVersionStampMatches() {
+        when(itemRepository.findVersionStamp()).thenReturn("2.2.0");
+        InvertedIndexItemSearchEngine first = engine();
+        first.init();
+        first.flush();
+
+        engine().init();
+        verify(itemRepository, times(1)).findTop1000ByIdGreaterThanOrderById(eq(0L));
+
+        when(itemRepository.findVersionStamp()).thenReturn("2.2.1");
+        engine().init();
+        verify(itemRepository, times(2)).findTop1000ByIdGreaterThanOrderById(eq(0L));
+    }
+
+    @Test
+    void testSearchSkipsItemsThatAreNoLongerAvailable() {
+        when(itemRepository.findVersionStamp()).thenReturn("2.2.0");
+        InvertedIndexItemSearchEngine engine = engine();
+        engine.init();
+
+        when(itemRepository.findAllById(anyIterable())).thenReturn(List.of(item(1L, "Дрель", false)));
+        assertThat(engine.search("дрель", 0, 10), empty());
+
+        when(itemRepository.findAllById(anyIterable())).thenReturn(List.of(drill));
+        assertThat(engine.search("дрель", 0, 10), contains(drill));
+    }
+
+    private InvertedIndexItemSearchEngine engine() {
+        return new InvertedIndexItemSearchEngine(itemRepository, dir.resolve("items.idx").toString());
+    }
+
+    private static Item item(Long id, String name, boolean available) {
+        return Item.builder()
+                .id(id)
+                .name(name)
+                .description(name)
+                .available(available)
+                .version(0L)
+                .build();
+    }
+}
@@ -0,0 +1,89 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+
+public class InvertedIndexTest {
+
+    @Test
+    void testStemmingMatchesWordForms() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(1L, "Дрель", "Простая дрель", true);
+        index.put(2L, "Аккумуляторная дрель", "Аккумуляторная дрель с зарядкой", true);
+        index.put(3L, "Drilling machine", "Heavy drills", true);
+
+        assertThat(index.search("дрелью", 0, 10), contains(1L, 2L));
+        assertThat(index.search("аккУМУляторной", 0, 10), contains(2L));
+        assertThat(index.search("drill", 0, 10), contains(3L));
+        assertThat(index.search("Ёлка", 0, 10), empty());
+    }
+
+    @Test
+    void testSearchRequiresAllTermsAndSkipsUnavailable() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(1L, "Пила", "Ручная пила по дереву", true);
+        index.put(2L, "Пила", "Цепная пила по металлу", true);
+        index.put(3L, "Пила", "Ручная пила", false);
+
+        assertThat(index.search("ручная пила", 0, 10), contains(1L));
+        assertThat(index.search("пил", 0, 10), contains(1L, 2L));
+        assertThat(index.search("пил", 1, 1), contains(2L));
+    }
+
+    @Test
+    void testNameMatchesRankHigherThanDescription() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(1L, "Стремянка", "Подходит вместо отвертки", true);
+        index.put(2L, "Отвертка", "Крестовая", true);
+
+        assertThat(index.search("отвертка", 0, 10), contains(2L, 1L));
+    }
+
+    @Test
+    void testRestoreRevertsUpdate() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(1L, "Молоток", "Тяжелый", true);
+        InvertedIndex.Document previous = index.put(1L, "Кувалда", "Тяжелая", true);
+        assertThat(index.search("молоток", 0, 10), empty());
+
+        index.restore(1L, previous);
+        assertThat(index.search("молоток", 0, 10), contains(1L));
+        assertThat(index.search("кувалда", 0, 10), empty());
+
+        index.restore(2L, null);
+        index.put(2L, "Рубанок", "", true);
+        index.restore(2L, null);
+        assertThat(index.search("рубанок", 0, 10), empty());
+    }
+
+    @Test
+    void testSegmentRoundTrip() throws IOException {
+        InvertedIndex index = new InvertedIndex();
+        for (long id = 1; id <= 300; id += 3) {
+            index.put(id, "Вещь " + id, "Описание вещи номер " + id, id % 2 == 0);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        index.writeTo(new DataOutputStream(bytes));
+
+        InvertedIndex loaded = InvertedIndex.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertThat(loaded.size(), equalTo(index.size()));
+        assertThat(loaded.maxDocumentId(), equalTo(298L));
+        for (String query : List.of("вещь", "описание 1", "номер 100")) {
+            assertThat(loaded.search(query, 0, 50), equalTo(index.search(query, 0, 50)));
+        }
+        loaded.put(4L, "Новая вещь", "", true);
+        assertThat(loaded.search("новая", 0, 10), contains(4L));
+    }
+}
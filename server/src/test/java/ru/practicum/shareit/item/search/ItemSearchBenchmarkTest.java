@@ -0,0 +1,131 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+
+/**
+ * Сравнение задержек поиска LIKE и pg_trgm на PostgreSQL. Запускается только вручную:
+ * mvn test -pl server -Dtest=ItemSearchBenchmarkTest -Dshareit.bench.jdbc-url=jdbc:postgresql://localhost:6541/shareit
+ * -Dshareit.bench.user=shareit -Dshareit.bench.password=shareit [-Dshareit.bench.items=1000000]
+ * Данные создаются во временной схеме shareit_bench, которая удаляется после прогона.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "shareit.bench.jdbc-url", matches = ".+")
+public class ItemSearchBenchmarkTest {
+    private static final String SCHEMA = "shareit_bench";
+    private static final String LIKE_SQL = "SELECT i.* FROM items i " +
+            "WHERE i.available = true " +
+            "AND (UPPER(i.name) LIKE UPPER('%' || ?1 || '%') OR UPPER(i.description) LIKE UPPER('%' || ?1 || '%')) " +
+            "OFFSET ?4 ROWS FETCH FIRST ?3 ROWS ONLY";
+    private static final List<String> PHRASES = List.of("дрель", "палатк", "drill", "аккумулятор", "шуруповёрт",
+            "ladder", "велосипед", "отсутствует");
+    private static final int WARMUP = 20;
+    private static final int ITERATIONS = 200;
+    private static final Pattern ORDINAL = Pattern.compile("\\?(\\d)");
+
+    private Connection connection;
+
+    @BeforeAll
+    void seed() throws SQLException {
+        connection = DriverManager.getConnection(System.getProperty("shareit.bench.jdbc-url"),
+                System.getProperty("shareit.bench.user"), System.getProperty("shareit.bench.password"));
+        int items = Integer.getInteger("shareit.bench.items", 1_000_000);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+            statement.execute("CREATE SCHEMA " + SCHEMA);
+            statement.execute("SET search_path TO " + SCHEMA + ", public");
+        }
+        ScriptUtils.executeSqlScript(connection, new ClassPathResource("schema.sql"));
+        ScriptUtils.executeSqlScript(connection, new ClassPathResource("schema-postgresql.sql"));
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO users (name, email) VALUES ('bench', 'bench@test.ru')");
+            statement.execute("INSERT INTO items (user_id, name, description, available) " +
+                    "SELECT (SELECT min(id) FROM users), " +
+                    "       w.words[1 + g % 12] || ' ' || substr(md5(g::text), 1, 8), " +
+                    "       repeat(w.words[1 + (g / 12) % 12] || ' ' || md5((g * 7)::text) || ' ', 1 + g % 20), " +
+                    "       g % 5 <> 0 " +
+                    "FROM generate_series(1, " + items + ") g, " +
+                    "     (SELECT ARRAY['Дрель', 'Палатка', 'Drill', 'Аккумуляторная пила', 'Шуруповёрт', 'Ladder', " +
+                    "                   'Велосипед', 'Стремянка', 'Tent', 'Молоток', 'Saw', 'Рубанок'] AS words) w");
+            statement.execute("ANALYZE items");
+        }
+    }
+
+    @AfterAll
+    void drop() throws SQLException {
+        if (connection == null) {
+            return;
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        } finally {
+            connection.close();
+        }
+    }
+
+    @Test
+    void testCompareLikeAndTrigramLatency() throws SQLException {
+        long[] like = measure(LIKE_SQL, false);
+        long[] trigram = measure(TrigramItemSearchEngine.SEARCH_SQL, true);
+
+        System.out.printf("LIKE:    p50 = %.2f ms, p99 = %.2f ms%n", percentile(like, 50), percentile(like, 99));
+        System.out.printf("pg_trgm: p50 = %.2f ms, p99 = %.2f ms%n", percentile(trigram, 50), percentile(trigram, 99));
+        assertThat(trigram.length, greaterThan(0));
+    }
+
+    private long[] measure(String sql, boolean likePattern) throws SQLException {
+        List<Long> timings = new ArrayList<>();
+        List<Integer> ordinals = new ArrayList<>();
+        Matcher matcher = ORDINAL.matcher(sql);
+        while (matcher.find()) {
+            ordinals.add(Integer.parseInt(matcher.group(1)));
+        }
+        try (PreparedStatement statement = connection.prepareStatement(matcher.replaceAll("?"))) {
+            for (int i = 0; i < WARMUP + ITERATIONS; i++) {
+                String phrase = PHRASES.get(i % PHRASES.size());
+                Object[] values = {
+                        likePattern ? TrigramItemSearchEngine.likePattern(phrase) : phrase, phrase, 10, 0};
+                for (int position = 0; position < ordinals.size(); position++) {
+                    statement.setObject(position + 1, values[ordinals.get(position) - 1]);
+                }
+                long started = System.nanoTime();
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        rs.getLong("id");
+                    }
+                }
+                if (i >= WARMUP) {
+                    timings.add(System.nanoTime() - started);
+                }
+            }
+        }
+        long[] sorted = timings.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    private static double percentile(long[] sorted, int percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,96 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+
+public class ItemSearchCacheTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ItemSearchCache cache = new ItemSearchCache(100, meterRegistry);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void testSamePhraseAndPageIsServedFromCache() {
+        search("Дрель", 0, 10);
+        search("дрель", 5, 10);
+        search("ДРЕЛЬ", 10, 10);
+
+        assertThat(loads.get(), equalTo(2));
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "items.search").tag("result", "hit")
+                .functionCounter().count(), equalTo(1.0));
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "items.search").tag("result", "miss")
+                .functionCounter().count(), equalTo(2.0));
+    }
+
+    @Test
+    void testEvictsOnlyMatchingPhrases() {
+        search("дрель", 0, 10);
+        search("дре", 0, 10);
+        search("палатка", 0, 10);
+        search("drill", 0, 10);
+
+        cache.evictMatching("Аккумуляторная дрелью", null);
+
+        assertThat(cache.size(), equalTo(2L));
+        search("палатка", 0, 10);
+        search("drill", 0, 10);
+        assertThat(loads.get(), equalTo(4));
+
+        cache.evictMatching("Двухместная палатка", "Для походов");
+        search("палатка", 0, 10);
+        assertThat(loads.get(), equalTo(5));
+    }
+
+    @Test
+    void testPhraseWhitespaceIsNormalizedInKeyAndQuery() {
+        List<String> queried = new ArrayList<>();
+        for (String phrase : List.of("дрель  аккумуляторная", "  Дрель аккумуляторная ")) {
+            cache.get(phrase, 0, 10, normalized -> {
+                queried.add(normalized);
+                return List.of();
+            });
+        }
+
+        assertThat(queried, contains("дрель аккумуляторная"));
+    }
+
+    @Test
+    void testEvictsPhraseFoundInsideWordAndForgetsRemovedPhrases() {
+        search("рель", 0, 10);
+        search("рель", 10, 10);
+        search("палатка", 0, 10);
+
+        cache.evictMatching("Дрель", null);
+
+        assertThat(cache.size(), equalTo(1L));
+        assertThat(cache.indexedPhrases(), equalTo(1));
+    }
+
+    @Test
+    void testLongPhraseIsEvictedByTruncatedAnchorAndStopsWideningSearch() {
+        String longWord = "перфоратор".repeat(500);
+        search("дрель", 0, 10);
+        search(longWord, 0, 10);
+        assertThat(cache.maxAnchorLength(), equalTo(ItemSearchCache.MAX_ANCHOR_LENGTH));
+
+        cache.evictMatching("Мощный " + longWord, null);
+
+        assertThat(cache.size(), equalTo(1L));
+        assertThat(cache.maxAnchorLength(), equalTo("дрель".length()));
+    }
+
+    private void search(String phrase, int from, int size) {
+        cache.get(phrase, from, size, normalized -> {
+            loads.incrementAndGet();
+            return List.of(ItemDto.builder().id(1L).name(phrase).build());
+        });
+    }
+}
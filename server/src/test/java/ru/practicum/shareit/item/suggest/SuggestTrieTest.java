@@ -0,0 +1,91 @@
+package ru.practicum.shareit.item.suggest;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+
+public class SuggestTrieTest {
+
+    @Test
+    void testSuggestOrdersByWeight() {
+        SuggestTrie trie = new SuggestTrie(3);
+        trie.add("дрель", 5);
+        trie.add("дрели", 1);
+        trie.add("дрова", 2);
+        trie.add("доска", 7);
+
+        assertThat(words(trie.suggest("др", 10)), contains("дрель", "дрова", "дрели"));
+        assertThat(words(trie.suggest("д", 10)), contains("доска", "дрель", "дрова"));
+        assertThat(words(trie.suggest("дре", 1)), contains("дрель"));
+        assertThat(trie.suggest("палатка", 10), empty());
+        assertThat(trie.suggest("дрельщик", 10), empty());
+    }
+
+    @Test
+    void testRemovalRestoresStructure() {
+        SuggestTrie trie = new SuggestTrie(5);
+        trie.add("пила", 1);
+        trie.add("пилка", 1);
+        trie.add("пилка", -1);
+        trie.add("пи", 1);
+        trie.add("пи", -1);
+
+        assertThat(words(trie.suggest("пил", 5)), contains("пила"));
+        assertThat(trie.weight("пилка"), equalTo(0));
+        assertThat(trie.weight("пи"), equalTo(0));
+
+        trie.add("пила", -1);
+        assertThat(trie.suggest("п", 5), empty());
+        trie.add("пила", -1);
+        assertThat(trie.weight("пила"), equalTo(0));
+    }
+
+    @Test
+    void testMatchesBruteForce() {
+        Random random = new Random(7);
+        SuggestTrie trie = new SuggestTrie(10);
+        Map<String, Integer> weights = new HashMap<>();
+        for (int i = 0; i < 5000; i++) {
+            String word = randomWord(random);
+            int delta = random.nextInt(4) == 0 && weights.containsKey(word) ? -1 : 1;
+            trie.add(word, delta);
+            weights.merge(word, delta, Integer::sum);
+            weights.remove(word, 0);
+        }
+        for (int i = 0; i < 500; i++) {
+            String word = randomWord(random);
+            String prefix = word.substring(0, 1 + random.nextInt(word.length()));
+            List<String> expected = weights.entrySet().stream()
+                    .filter(entry -> entry.getKey().startsWith(prefix))
+                    .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder())
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .limit(10)
+                    .map(Map.Entry::getKey)
+                    .toList();
+            assertThat(words(trie.suggest(prefix, 10)), equalTo(expected));
+        }
+        weights.forEach((word, weight) -> assertThat(trie.weight(word), equalTo(weight)));
+    }
+
+    private static List<String> words(List<SuggestTrie.Entry> entries) {
+        return entries.stream().map(entry -> entry.word).toList();
+    }
+
+    private static String randomWord(Random random) {
+        StringBuilder word = new StringBuilder();
+        int length = 1 + random.nextInt(5);
+        for (int i = 0; i < length; i++) {
+            word.append("абвгд".charAt(random.nextInt(5)));
+        }
+        return word.toString();
+    }
+}
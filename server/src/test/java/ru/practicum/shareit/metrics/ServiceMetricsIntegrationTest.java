@@ -0,0 +1,74 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@Transactional
+@SpringBootTest(properties = "db.name=test", webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class ServiceMetricsIntegrationTest {
+    private final UserService userService;
+    private final BookingService bookingService;
+    private final MeterRegistry meterRegistry;
+
+    @Test
+    void testServiceCallsAreTimedByMethodStateAndException() {
+        UserDto booker = userService.createUser(UserDto.builder()
+                .name("Alex")
+                .email("alex@test.ru")
+                .build());
+
+        bookingService.findAllByBookerIdAndBookingState(booker.getId(), BookingState.WAITING, 0, 10);
+        assertThrows(NotFoundException.class, () -> userService.getUserById(-1L));
+
+        Timer byState = meterRegistry.find(ServiceMetricsAspect.TIMER_NAME)
+                .tags("service", "BookingService", "method", "findAllByBookerIdAndBookingState",
+                        "state", "WAITING", "exception", "none")
+                .timer();
+        Timer failed = meterRegistry.find(ServiceMetricsAspect.TIMER_NAME)
+                .tags("service", "UserService", "method", "getUserById", "state", "none",
+                        "exception", "NotFoundException")
+                .timer();
+        assertThat(byState, notNullValue());
+        assertThat(byState.count(), greaterThanOrEqualTo(1L));
+        assertThat(failed, notNullValue());
+        assertThat(failed.count(), greaterThanOrEqualTo(1L));
+    }
+
+    @Test
+    void testSqlCountersSeeStatementsAndRowsOfCurrentThread() {
+        userService.createUser(UserDto.builder()
+                .name("Alex")
+                .email("alex@test.ru")
+                .build());
+        userService.createUser(UserDto.builder()
+                .name("Serg")
+                .email("serg@test.ru")
+                .build());
+
+        SqlCounters counters = SqlCounters.start();
+        try {
+            userService.getAllUsers();
+        } finally {
+            SqlCounters.stop();
+        }
+        userService.getAllUsers();
+
+        assertThat(counters.getStatements(), equalTo(1L));
+        assertThat(counters.getRows(), greaterThanOrEqualTo(2L));
+    }
+}
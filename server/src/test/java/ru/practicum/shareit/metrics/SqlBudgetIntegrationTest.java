@@ -0,0 +1,171 @@
+package ru.practicum.shareit.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.NewBookingDto;
+import ru.practicum.shareit.item.comments.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.ItemRequestService;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Прогоняет эндпоинты с {@link SqlBudget} на данных, где N+1 был бы заметен: в тестовом профиле превышение
+ * бюджета обрывает запрос исключением. Тест не транзакционный: каждый запрос фиксируется сам, поэтому
+ * в бюджет попадают и UPDATE, которые Hibernate выполняет при фиксации. Данные удаляются после каждого теста.
+ */
+@SpringBootTest(properties = "db.name=test")
+@AutoConfigureMockMvc
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class SqlBudgetIntegrationTest {
+    private static final String USER_HEADER_ID = "X-Sharer-User-Id";
+    private static final int ITEMS = 5;
+    private static final List<String> TABLES = List.of(
+            "comments", "item_booking_pointers", "bookings", "items", "requests", "users");
+
+    private final MockMvc mvc;
+    private final ObjectMapper mapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final UserService userService;
+    private final ItemService itemService;
+    private final BookingService bookingService;
+    private final ItemRequestService requestService;
+
+    private UserDto owner;
+    private UserDto booker;
+    private ItemRequestDto request;
+    private final List<ItemDto> items = new ArrayList<>();
+    private final List<BookingDto> waiting = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        owner = userService.createUser(UserDto.builder()
+                .name("Serg")
+                .email("serg@test.ru")
+                .build());
+        booker = userService.createUser(UserDto.builder()
+                .name("Alex")
+                .email("alex@test.ru")
+                .build());
+        request = requestService.addRequest(ItemRequestDto.builder()
+                .description("Нужен инструмент")
+                .build(), booker.getId());
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < ITEMS; i++) {
+            ItemDto item = itemService.addItem(owner.getId(), ItemDto.builder()
+                    .name("Вещь " + i)
+                    .description("Описание " + i)
+                    .available(true)
+                    .requestId(request.getId())
+                    .build());
+            items.add(item);
+            BookingDto past = bookingService.add(booking(item, now.minusDays(3)), booker.getId());
+            bookingService.approveBooking(past.getId(), true, owner.getId());
+            waiting.add(bookingService.add(booking(item, now.plusDays(3)), booker.getId()));
+            itemService.addComment(item.getId(), booker.getId(), CommentDto.builder()
+                    .text("Отлично")
+                    .build());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        TABLES.forEach(table -> jdbcTemplate.update("DELETE FROM " + table));
+    }
+
+    @Test
+    void testItemEndpointsStayWithinBudget() throws Exception {
+        long itemId = items.get(0).getId();
+        perform(get("/items/{itemId}", itemId), owner);
+        perform(get("/items?from=0&size=10"), owner);
+        perform(get("/items/search?text=вещь&from=0&size=10"), booker);
+        perform(get("/items/suggest?prefix=ве"), booker);
+        perform(post("/items").content(json(ItemDto.builder()
+                .name("Пила")
+                .description("Ручная")
+                .available(true)
+                .build())), owner);
+        perform(patch("/items/{itemId}", itemId).content(json(ItemDto.builder()
+                .description("Новое описание")
+                .build())), owner);
+        perform(post("/items/{itemId}/comment", itemId).content(json(CommentDto.builder()
+                .text("Ещё раз отлично")
+                .build())), booker);
+    }
+
+    @Test
+    void testBookingEndpointsStayWithinBudget() throws Exception {
+        perform(post("/bookings").content(json(booking(items.get(0), LocalDateTime.now().plusDays(10)))), booker);
+        perform(patch("/bookings/{bookingId}?approved=true", waiting.get(0).getId()), owner);
+        perform(patch("/bookings/{bookingId}?approved=false", waiting.get(2).getId()), owner);
+        perform(get("/bookings/{bookingId}", waiting.get(1).getId()), booker);
+        for (String state : List.of("ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED")) {
+            perform(get("/bookings?state={state}&from=0&size=10", state), booker);
+            perform(get("/bookings/owner?state={state}&from=0&size=10", state), owner);
+            perform(get("/bookings?state={state}&size=10&paging=CURSOR", state), booker);
+            perform(get("/bookings/owner?state={state}&size=10&paging=CURSOR", state), owner);
+        }
+    }
+
+    @Test
+    void testRequestEndpointsStayWithinBudget() throws Exception {
+        perform(post("/requests").content(json(ItemRequestDto.builder()
+                .description("Нужна лестница")
+                .build())), owner);
+        perform(get("/requests"), booker);
+        perform(get("/requests/all?from=0&size=10"), owner);
+        perform(get("/requests/{requestId}", request.getId()), owner);
+    }
+
+    @Test
+    void testCountersThrowOnceBudgetIsExceeded() {
+        SqlCounters.start(1, true);
+        try {
+            SqlCounters.statementExecuted();
+            assertThrows(SqlBudgetExceededException.class, SqlCounters::statementExecuted);
+        } finally {
+            SqlCounters.stop();
+        }
+    }
+
+    private NewBookingDto booking(ItemDto item, LocalDateTime start) {
+        return NewBookingDto.builder()
+                .itemId(item.getId())
+                .start(start)
+                .end(start.plusDays(1))
+                .build();
+    }
+
+    private void perform(MockHttpServletRequestBuilder request, UserDto user) throws Exception {
+        mvc.perform(request
+                        .header(USER_HEADER_ID, user.getId())
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().is2xxSuccessful());
+    }
+
+    private String json(Object value) throws Exception {
+        return mapper.writeValueAsString(value);
+    }
+}
@@ -124,7 +124,7 @@ public class ItemRequestServiceImplUnitTest {
 
     @Test
     void testFindByIdItemRequestNotFound() {
-        User user = new User(1L, "Alex", "alex@test.com");
+        User user = new User(1L, "Alex", "alex@test.com", null);
         Mockito
                 .when(userRepository.findById(1L))
                 .thenReturn(Optional.of(user));
@@ -146,10 +146,10 @@ public class ItemRequestServiceImplUnitTest {
 
     @Test
     void testFindByIdItemRequestOk() {
-        User user = new User(1L, "Alex", "alex@test.com");
-        User itemOwner = new User(2L, "Vika", "vika@test.com");
-        ItemRequest itemRequest = new ItemRequest(1L, user, "Нужна переноска", LocalDateTime.now());
-        Item item = new Item(1L, itemOwner, itemRequest, "Сумка", "переносить животное", true);
+        User user = new User(1L, "Alex", "alex@test.com", null);
+        User itemOwner = new User(2L, "Vika", "vika@test.com", null);
+        ItemRequest itemRequest = new ItemRequest(1L, user, "Нужна переноска", LocalDateTime.now(), null);
+        Item item = new Item(1L, itemOwner, itemRequest, "Сумка", "переносить животное", true, null);
         Mockito
                 .when(userRepository.findById(1L))
                 .thenReturn(Optional.of(user));
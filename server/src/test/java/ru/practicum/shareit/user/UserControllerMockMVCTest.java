@@ -8,6 +8,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -21,6 +22,8 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -122,4 +125,29 @@ public class UserControllerMockMVCTest {
                 .andExpect(jsonPath("$[1].name", is(userDtoTwo.getName()), String.class))
                 .andExpect(jsonPath("$[1].email", is(userDtoTwo.getEmail()), String.class));
     }
+
+    @Test
+    void testGetUserByIdRevalidatesETag() throws Exception {
+        when(userService.getUserETag(2L))
+                .thenReturn("u2-3");
+        when(userService.getUserById(2L))
+                .thenReturn(new UserDto(2L, "Serg", "serg@google.com"));
+
+        mvc.perform(get("/users/2")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"u2-3\"")
+                        .accept(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"u2-3\""))
+                .andExpect(content().string(""));
+        Mockito.verify(userService, Mockito.never()).getUserById(2L);
+
+        mvc.perform(get("/users/2")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"u2-2\"")
+                        .accept(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"u2-3\""))
+                .andExpect(jsonPath("$.name", is("Serg")));
+    }
 }
@@ -28,10 +28,10 @@ public class UserServiceImplUnitTest {
         UserService userService = new UserServiceImpl(mockUserRepository);
         Mockito
                 .when(mockUserRepository.findById(1L))
-                .thenReturn(Optional.of(new User(1L, "Alex", "alex@test.com")));
+                .thenReturn(Optional.of(new User(1L, "Alex", "alex@test.com", null)));
         Mockito
-                .when(mockUserRepository.save(new User(1L, "Aleksandr", "alex@test.com")))
-                .thenReturn(new User(1L, "Aleksandr", "alex@test.com"));
+                .when(mockUserRepository.save(new User(1L, "Aleksandr", "alex@test.com", null)))
+                .thenReturn(new User(1L, "Aleksandr", "alex@test.com", null));
 
         UserDto userDto = UserDto.builder()
                 .name("Aleksandr")
@@ -46,7 +46,7 @@ public class UserServiceImplUnitTest {
         Mockito.verify(mockUserRepository, Mockito.times(1))
                 .findById(1L);
         Mockito.verify(mockUserRepository, Mockito.times(1))
-                .save(new User(1L, "Aleksandr", "alex@test.com"));
+                .save(new User(1L, "Aleksandr", "alex@test.com", null));
     }
 
     @Test
@@ -54,7 +54,7 @@ public class UserServiceImplUnitTest {
         UserService userService = new UserServiceImpl(mockUserRepository);
         Mockito
                 .when(mockUserRepository.findById(1L))
-                .thenReturn(Optional.of(new User(1L, "Aleksandr", "alex@test.com")));
+                .thenReturn(Optional.of(new User(1L, "Aleksandr", "alex@test.com", null)));
 
         UserDto userDto = userService.getUserById(1L);
 